@@ -0,0 +1,43 @@
+package personal.tutorial.springbootquerydsl.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import personal.tutorial.springbootquerydsl.dto.BulkResult;
+import personal.tutorial.springbootquerydsl.dto.MemberRow;
+import personal.tutorial.springbootquerydsl.dto.MemberSearchCondition;
+import personal.tutorial.springbootquerydsl.dto.MemberTeamDto;
+import personal.tutorial.springbootquerydsl.repository.MemberQueryRepository;
+import personal.tutorial.springbootquerydsl.service.MemberBulkLoader;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 기본 설정 vs perf 프로파일(Hikari 고정 풀, autocommit 생략, fetch/batch 크기) 동시 부하 처리량 비교
+ * ./gradlew jmh -PjmhIncludes=ConnectionPool -PjmhProfiles=bench,perf+bench
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+public class ConnectionPoolBenchmark {
+
+    @Benchmark
+    public List<MemberTeamDto> search(SeededDatabase db) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("team" + ThreadLocalRandom.current().nextInt(db.teams));
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(40);
+        return db.bean(MemberQueryRepository.class).search(condition);
+    }
+
+    @Benchmark
+    public BulkResult insert(SeededDatabase db) {
+        return db.bean(MemberBulkLoader.class).load(IntStream.range(0, 200)
+                .mapToObj(i -> new MemberRow("load" + i, i % 100, "team" + (i % db.teams))), 100);
+    }
+}
@@ -0,0 +1,50 @@
+package personal.tutorial.springbootquerydsl.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import personal.tutorial.springbootquerydsl.dto.MemberDto;
+import personal.tutorial.springbootquerydsl.dto.QMemberDto;
+import personal.tutorial.springbootquerydsl.service.FullTextIndex;
+import personal.tutorial.springbootquerydsl.service.FullTextSearch;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+/**
+ * 회원 이름 검색: Lucene 전문 검색 vs 지금의 LIKE. LIKE 는 순위도 오타 허용도 없으므로 같은 단어를 찾는 비용만 비교한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FullTextSearchBenchmark {
+
+    @Setup(Level.Trial)
+    public void buildIndex(SeededDatabase db) {
+        db.bean(FullTextIndex.class).reindex();
+    }
+
+    @Benchmark
+    public List<MemberDto> fullText(SeededDatabase db) {
+        return db.bean(FullTextSearch.class).searchMembers("member4242", 10);
+    }
+
+    @Benchmark
+    public List<MemberDto> fullTextTypo(SeededDatabase db) {
+        return db.bean(FullTextSearch.class).searchMembers("membr4242", 10);
+    }
+
+    @Benchmark
+    public List<MemberDto> likeContains(SeededDatabase db) {
+        return db.readOnly(() -> db.queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .where(member.username.contains("member4242"))
+                .limit(10)
+                .fetch());
+    }
+}
@@ -0,0 +1,54 @@
+package personal.tutorial.springbootquerydsl.bench;
+
+import com.querydsl.core.types.Projections;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import personal.tutorial.springbootquerydsl.dto.MemberDto;
+import personal.tutorial.springbootquerydsl.dto.QMemberDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+/**
+ * Projections.bean / fields / constructor / @QueryProjection 비교 (전체 회원을 MemberDto 로)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProjectionBenchmark {
+
+    @Benchmark
+    public List<MemberDto> bean(SeededDatabase db) {
+        return db.readOnly(() -> db.queryFactory
+                .select(Projections.bean(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> fields(SeededDatabase db) {
+        return db.readOnly(() -> db.queryFactory
+                .select(Projections.fields(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> constructor(SeededDatabase db) {
+        return db.readOnly(() -> db.queryFactory
+                .select(Projections.constructor(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> queryProjection(SeededDatabase db) {
+        return db.readOnly(() -> db.queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+}
@@ -0,0 +1,100 @@
+package personal.tutorial.springbootquerydsl.bench;
+
+import com.querydsl.core.QueryResults;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import personal.tutorial.springbootquerydsl.entity.Member;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+import static personal.tutorial.springbootquerydsl.entity.QTeam.team;
+
+/**
+ * 페치 조인 vs 지연 로딩, fetchResults vs count 분리, JPQL 문자열 vs QueryDSL
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class QueryPatternBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Benchmark
+    public long lazyTeam(SeededDatabase db) {
+        return db.readOnly(() -> {
+            long length = 0;
+            for (Member m : db.queryFactory.selectFrom(member).limit(PAGE_SIZE * 10).fetch()) {
+                length += m.getTeam().getName().length(); // 팀 프록시 초기화 (배치 로딩)
+            }
+            return length;
+        });
+    }
+
+    @Benchmark
+    public long fetchJoinTeam(SeededDatabase db) {
+        return db.readOnly(() -> {
+            long length = 0;
+            for (Member m : db.queryFactory.selectFrom(member)
+                    .join(member.team, team).fetchJoin()
+                    .limit(PAGE_SIZE * 10).fetch()) {
+                length += m.getTeam().getName().length();
+            }
+            return length;
+        });
+    }
+
+    @Benchmark
+    public QueryResults<Member> fetchResults(SeededDatabase db) {
+        return db.readOnly(() -> db.queryFactory
+                .selectFrom(member)
+                .join(member.team, team)
+                .where(team.name.eq("team1"))
+                .orderBy(member.id.asc())
+                .offset(PAGE_SIZE)
+                .limit(PAGE_SIZE)
+                .fetchResults());
+    }
+
+    @Benchmark
+    public long separateCount(SeededDatabase db) {
+        return db.readOnly(() -> {
+            List<Member> content = db.queryFactory
+                    .selectFrom(member)
+                    .join(member.team, team)
+                    .where(team.name.eq("team1"))
+                    .orderBy(member.id.asc())
+                    .offset(PAGE_SIZE)
+                    .limit(PAGE_SIZE)
+                    .fetch();
+            // count 에는 정렬/페치가 필요 없다
+            Long total = db.queryFactory
+                    .select(member.count())
+                    .from(member)
+                    .join(member.team, team)
+                    .where(team.name.eq("team1"))
+                    .fetchOne();
+            return content.size() + total;
+        });
+    }
+
+    @Benchmark
+    public List<Member> jpqlString(SeededDatabase db) {
+        return db.readOnly(() -> db.em.createQuery(
+                        "select m from Member m where m.username = :username and m.age between :from and :to", Member.class)
+                .setParameter("username", "member42")
+                .setParameter("from", 10)
+                .setParameter("to", 50)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<Member> querydsl(SeededDatabase db) {
+        return db.readOnly(() -> db.queryFactory
+                .selectFrom(member)
+                .where(member.username.eq("member42"), member.age.between(10, 50))
+                .fetch());
+    }
+}
@@ -0,0 +1,46 @@
+package personal.tutorial.springbootquerydsl.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import personal.tutorial.springbootquerydsl.dto.MemberDto;
+import personal.tutorial.springbootquerydsl.dto.QMemberDto;
+import personal.tutorial.springbootquerydsl.repository.ReadOnlyQueries;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+/**
+ * 같은 MemberDto 목록을 엔티티 조회 후 변환 / 영속성 컨텍스트를 거치는 DTO projection / ReadOnlyQueries(StatelessSession) 로 만들 때 비교.
+ * gc 프로파일러의 gc.alloc.rate.norm (호출당 할당 바이트) 을 본다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReadOnlyQueryBenchmark {
+
+    @Benchmark
+    public List<MemberDto> entityThenMap(SeededDatabase db) {
+        return db.readOnly(() -> db.queryFactory
+                .selectFrom(member)
+                .fetch()
+                .stream()
+                .map(m -> new MemberDto(m.getUsername(), m.getAge()))
+                .toList());
+    }
+
+    @Benchmark
+    public List<MemberDto> dtoProjection(SeededDatabase db) {
+        return db.readOnly(() -> db.queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> readOnlyQueries(SeededDatabase db) {
+        return db.bean(ReadOnlyQueries.class).fetch(new QMemberDto(member.username, member.age), q -> q.from(member));
+    }
+}
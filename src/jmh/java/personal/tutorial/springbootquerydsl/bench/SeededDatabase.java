@@ -0,0 +1,79 @@
+package personal.tutorial.springbootquerydsl.bench;
+
+import com.blazebit.persistence.querydsl.BlazeJPAQueryFactory;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import personal.tutorial.springbootquerydsl.SpringBootQueryDslApplication;
+import personal.tutorial.springbootquerydsl.dto.MemberRow;
+import personal.tutorial.springbootquerydsl.service.MemberBulkLoader;
+
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * 벤치마크 공용 상태. 기본은 bench 프로파일(메모리 H2)로 애플리케이션을 띄우고 members 명, teams 개 팀을 채운다.
+ * 회원 나이는 0~99, 이름은 member{i}, 팀은 team{i % teams}.
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+
+    @Param("10000")
+    public int members;
+
+    @Param("100")
+    public int teams;
+
+    // 함께 켤 스프링 프로파일, + 로 잇는다 (예: perf+bench 는 perf 설정 위에 bench 의 메모리 H2 를 덮어쓴다)
+    @Param("bench")
+    public String profiles;
+
+    public ConfigurableApplicationContext context;
+    public EntityManager em;
+    public JPAQueryFactory queryFactory;
+    public BlazeJPAQueryFactory blazeQueryFactory;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(SpringBootQueryDslApplication.class)
+                .profiles(profiles.split("\\+"))
+                .web(webApplicationType())
+                .run("--server.port=0");
+        em = context.getBean(EntityManager.class);
+        queryFactory = context.getBean(JPAQueryFactory.class);
+        blazeQueryFactory = context.getBean(BlazeJPAQueryFactory.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        context.getBean(MemberBulkLoader.class).load(IntStream.range(0, members)
+                .mapToObj(i -> new MemberRow("member" + i, i % 100, "team" + (i % teams))), 5_000);
+    }
+
+    protected WebApplicationType webApplicationType() {
+        return WebApplicationType.NONE;
+    }
+
+    public <T> T readOnly(Supplier<T> work) {
+        return readOnly.execute(status -> work.get());
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
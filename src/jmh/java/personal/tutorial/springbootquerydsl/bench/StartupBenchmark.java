@@ -0,0 +1,159 @@
+package personal.tutorial.springbootquerydsl.bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 새 프로세스를 띄워서 첫 /members 요청이 200 으로 끝날 때까지의 시간 (time-to-first-request)과 그 시점의 RSS(rssKb, Linux).
+ * build/cds 의 jar 들로 실행하므로 먼저 ./gradlew cdsArchive 를 돌린다. aot 는 -PfastStartup 으로 만든 경우에만 쓸 수 있다.
+ * ./gradlew cdsArchive jmh -PjmhIncludes=Startup -PjmhStartupModes=jvm,cds,fast+cds,fast+aot+cds -PfastStartup
+ * native 는 ./gradlew nativeCompile -Pnative 로 만든 build/native/nativeCompile/springbootquerydsl 을 실행한다.
+ * ./gradlew nativeCompile cdsArchive jmh -Pnative -PjmhIncludes=Startup -PjmhStartupModes=jvm,cds,native
+ * <ul>
+ *     <li>native: GraalVM native image (다른 옵션과 섞지 않는다)</li>
+ *     <li>cds: -XX:SharedArchiveFile=application.jsa</li>
+ *     <li>fast: fast 프로파일 (lazy-initialization)</li>
+ *     <li>aot: -Dspring.aot.enabled=true (fast 프로파일로 AOT 처리되어 있으므로 fast 와 같이 쓴다)</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+public class StartupBenchmark {
+
+    @State(Scope.Thread)
+    public static class Launch {
+
+        @Param({"jvm", "cds", "fast", "fast+cds"}) // native 는 -PjmhStartupModes 로 켠다
+        public String mode;
+
+        Process process;
+
+        @TearDown(Level.Invocation)
+        public void stop() throws InterruptedException {
+            if (process != null) {
+                process.destroy();
+                process.waitFor(30, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    /**
+     * 첫 요청을 마친 시점의 프로세스 RSS. /proc 이 없으면 0
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Memory {
+        public long rssKb;
+    }
+
+    private static final Path APP_DIR = Path.of(System.getProperty("startup.dir", "build/cds"));
+    private static final Path NATIVE_IMAGE = Path.of(System.getProperty("startup.native", "build/native/nativeCompile/springbootquerydsl"));
+    private static final HttpClient CLIENT = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    @Benchmark
+    public int timeToFirstRequest(Launch launch, Memory memory) throws IOException, InterruptedException {
+        boolean nativeImage = launch.mode.equals("native");
+        Path required = nativeImage ? NATIVE_IMAGE : APP_DIR.resolve("classpath.args");
+        if (!Files.exists(required)) {
+            throw new IllegalStateException(required.toAbsolutePath() + " 가 없습니다. "
+                    + (nativeImage ? "./gradlew nativeCompile -Pnative" : "./gradlew cdsArchive") + " 를 먼저 실행하세요.");
+        }
+        int port = freePort();
+        launch.process = new ProcessBuilder(nativeImage ? nativeCommand(port) : command(launch.mode, port))
+                .directory(nativeImage ? null : APP_DIR.toFile())
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/members")).GET().build();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (System.nanoTime() < deadline) {
+            if (!launch.process.isAlive()) {
+                throw new IllegalStateException("애플리케이션이 기동 중에 종료되었습니다 (mode=" + launch.mode + ")");
+            }
+            try {
+                HttpResponse<Void> response = CLIENT.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    memory.rssKb = rssKb(launch.process.pid());
+                    return response.statusCode();
+                }
+            } catch (IOException notYetListening) {
+                // 아직 포트가 열리지 않았다
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("2분 안에 첫 요청이 성공하지 않았습니다 (mode=" + launch.mode + ")");
+    }
+
+    private static List<String> command(String mode, int port) {
+        List<String> modes = List.of(mode.split("\\+"));
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (modes.contains("cds")) {
+            command.add("-XX:SharedArchiveFile=application.jsa");
+        }
+        if (modes.contains("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("@classpath.args");
+        command.add("personal.tutorial.springbootquerydsl.SpringBootQueryDslApplication");
+        command.addAll(appArgs(port));
+        command.add("--spring.profiles.active=" + (modes.contains("fast") ? "fast" : "default"));
+        return command;
+    }
+
+    private static List<String> nativeCommand(int port) {
+        List<String> command = new ArrayList<>();
+        command.add(NATIVE_IMAGE.toAbsolutePath().toString());
+        command.addAll(appArgs(port));
+        return command;
+    }
+
+    private static List<String> appArgs(int port) {
+        return List.of("--server.port=" + port, "--spring.datasource.url=jdbc:h2:mem:startup");
+    }
+
+    private static long rssKb(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Linux 가 아니면 측정하지 않는다
+        }
+        return 0;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package personal.tutorial.springbootquerydsl.bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import personal.tutorial.springbootquerydsl.dto.MemberDto;
+import personal.tutorial.springbootquerydsl.dto.QMemberDto;
+import personal.tutorial.springbootquerydsl.repository.MemberStreamRepository;
+import personal.tutorial.springbootquerydsl.repository.QueryStreams;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+/**
+ * fetch() 로 전체 List 를 만드는 경우와 커서 스트리밍 비교.
+ * peakHeapMb 는 힙 사용량 최대값이다. 스트리밍 쪽은 members 를 늘려도 거의 일정해야 한다.
+ * ./gradlew jmh -PjmhIncludes=Streaming -PjmhMembers=10000000
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StreamingBenchmark {
+
+    private static final int SAMPLE_EVERY = 10_000;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        public long peakHeapMb;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            System.gc();
+            peakHeapMb = 0;
+        }
+
+        void sample() {
+            peakHeapMb = Math.max(peakHeapMb, memory.getHeapMemoryUsage().getUsed() / (1024 * 1024));
+        }
+    }
+
+    @Benchmark
+    public long fetchList(SeededDatabase db, Heap heap) {
+        return db.readOnly(() -> {
+            List<MemberDto> all = db.queryFactory
+                    .select(new QMemberDto(member.username, member.age))
+                    .from(member)
+                    .fetch();
+            long sum = 0;
+            for (int i = 0; i < all.size(); i++) {
+                sum += all.get(i).getAge();
+                if (i % SAMPLE_EVERY == 0) {
+                    heap.sample();
+                }
+            }
+            return sum;
+        });
+    }
+
+    @Benchmark
+    public long stream(SeededDatabase db, Heap heap) {
+        long[] sum = {0};
+        long[] rows = {0};
+        db.bean(MemberStreamRepository.class).forEachMemberDto(QueryStreams.DEFAULT_FETCH_SIZE, dto -> {
+            sum[0] += dto.getAge();
+            if (rows[0]++ % SAMPLE_EVERY == 0) {
+                heap.sample();
+            }
+        });
+        return sum[0];
+    }
+}
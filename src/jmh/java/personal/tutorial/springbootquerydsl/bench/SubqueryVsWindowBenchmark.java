@@ -0,0 +1,58 @@
+package personal.tutorial.springbootquerydsl.bench;
+
+import com.querydsl.jpa.JPAExpressions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import personal.tutorial.springbootquerydsl.dto.MemberDto;
+import personal.tutorial.springbootquerydsl.dto.QMemberDto;
+import personal.tutorial.springbootquerydsl.entity.QMember;
+import personal.tutorial.springbootquerydsl.repository.MemberWindowQueryRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+/**
+ * JPAExpressions 서브쿼리 vs 윈도우 함수(CTE) 비교
+ * ./gradlew jmh -PjmhIncludes=SubqueryVsWindow -PjmhMembers=1000000
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SubqueryVsWindowBenchmark {
+
+    @Benchmark
+    public List<MemberDto> atLeastAverageSubquery(SeededDatabase db) {
+        QMember memberSub = new QMember("memberSub");
+        return db.readOnly(() -> db.queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .where(member.age.goe(JPAExpressions.select(memberSub.age.avg()).from(memberSub)))
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> atLeastAverageWindow(SeededDatabase db) {
+        return db.bean(MemberWindowQueryRepository.class).findMembersAtLeastAverageAge();
+    }
+
+    @Benchmark
+    public List<MemberDto> oldestPerTeamCorrelatedSubquery(SeededDatabase db) {
+        QMember memberSub = new QMember("memberSub");
+        return db.readOnly(() -> db.queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .where(member.team.isNotNull(), member.age.eq(JPAExpressions
+                        .select(memberSub.age.max())
+                        .from(memberSub)
+                        .where(memberSub.team.eq(member.team))))
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> oldestPerTeamWindow(SeededDatabase db) {
+        return db.bean(MemberWindowQueryRepository.class).findOldestMembersPerTeam();
+    }
+}
@@ -0,0 +1,62 @@
+package personal.tutorial.springbootquerydsl.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import personal.tutorial.springbootquerydsl.dto.MemberTeamDto;
+import personal.tutorial.springbootquerydsl.service.UsernameIndex;
+import personal.tutorial.springbootquerydsl.service.UsernameSearch;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+/**
+ * 자동완성/부분 검색: UsernameIndex vs LIKE. 큰 데이터는 ./gradlew jmh -PjmhIncludes=UsernameSearch -PjmhMembers=10000000
+ * autocomplete 는 DB 를 거치지 않으므로 회원 수가 늘어도 마이크로초 단위로 남아야 한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UsernameSearchBenchmark {
+
+    @Setup(Level.Trial)
+    public void buildIndex(SeededDatabase db) {
+        db.bean(UsernameIndex.class).rebuild();
+    }
+
+    @Benchmark
+    public List<String> autocompleteIndex(SeededDatabase db) {
+        return db.bean(UsernameSearch.class).autocomplete("member123", 10);
+    }
+
+    @Benchmark
+    public List<String> autocompleteLike(SeededDatabase db) {
+        return db.readOnly(() -> db.queryFactory
+                .select(member.username).distinct()
+                .from(member)
+                .where(member.username.startsWith("member123"))
+                .orderBy(member.username.asc())
+                .limit(10)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> containsIndex(SeededDatabase db) {
+        return db.bean(UsernameSearch.class).findByUsernameContaining("ber98", 10);
+    }
+
+    @Benchmark
+    public List<String> containsLike(SeededDatabase db) {
+        return db.readOnly(() -> db.queryFactory
+                .select(member.username)
+                .from(member)
+                .where(member.username.contains("ber98"))
+                .orderBy(member.username.asc())
+                .limit(10)
+                .fetch());
+    }
+}
@@ -0,0 +1,58 @@
+package personal.tutorial.springbootquerydsl.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.WebApplicationType;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 플랫폼 스레드(톰캣 기본 200개) vs 가상 스레드에서 /members 검색 처리량과 p99 지연시간.
+ * SampleTime 결과의 p0.99 를 본다. 동시 요청 수가 톰캣 스레드 수보다 많아야 차이가 드러난다.
+ * ./gradlew jmh -PvirtualThreads -PjmhIncludes=VirtualThread -PjmhProfiles=bench,virtual+bench
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(400)
+public class VirtualThreadBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class WebServer extends SeededDatabase {
+        HttpClient client;
+        String baseUrl;
+
+        @Override
+        protected WebApplicationType webApplicationType() {
+            return WebApplicationType.SERVLET;
+        }
+
+        @Setup(Level.Trial)
+        public void connect() {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/members";
+            client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        }
+    }
+
+    @Benchmark
+    public int searchMembers(WebServer server) throws IOException, InterruptedException {
+        String query = "?teamName=team" + ThreadLocalRandom.current().nextInt(server.teams) + "&ageGoe=20&ageLoe=40";
+        HttpResponse<Void> response = server.client.send(
+                HttpRequest.newBuilder(URI.create(server.baseUrl + query)).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+        return response.statusCode();
+    }
+}
@@ -2,14 +2,25 @@ package personal.tutorial.springbootquerydsl;
 
 import com.blazebit.persistence.Criteria;
 import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.querydsl.BlazeJPAQueryFactory;
 import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.PersistenceUnit;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Scope;
+import personal.tutorial.springbootquerydsl.dto.MemberView;
+import personal.tutorial.springbootquerydsl.dto.MemberWithTeamView;
+import personal.tutorial.springbootquerydsl.dto.TeamView;
+import personal.tutorial.springbootquerydsl.dto.TeamWithMembersView;
 
 @Configuration
 public class BlazePersistenceConfiguration {
@@ -17,12 +28,40 @@ public class BlazePersistenceConfiguration {
     @PersistenceUnit
     private EntityManagerFactory entityManagerFactory;
 
+    @PersistenceContext
+    private EntityManager entityManager; // 트랜잭션 범위의 프록시가 주입되므로 싱글톤 팩토리에 넣어도 안전하다.
+
+    /**
+     * 메타모델을 전부 훑어서 만드므로 기동 시간이 길다. 처음 쓰일 때 만든다.
+     * 주입받는 쪽도 @Lazy 로 받아야 기동 중에 만들어지지 않는다.
+     */
     @Bean
     @Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
-    @Lazy(false)
+    @Lazy
     public CriteriaBuilderFactory createCriteriaBuilderFactory() {
         CriteriaBuilderConfiguration config = Criteria.getDefault();
         // do some configuration
         return config.createCriteriaBuilderFactory(entityManagerFactory);
     }
-}
\ No newline at end of file
+
+    @Bean
+    @Lazy
+    public EntityViewManager entityViewManager(CriteriaBuilderFactory criteriaBuilderFactory) {
+        EntityViewConfiguration config = EntityViews.createDefaultConfiguration();
+        config.addEntityView(MemberView.class);
+        config.addEntityView(MemberWithTeamView.class);
+        config.addEntityView(TeamView.class);
+        config.addEntityView(TeamWithMembersView.class);
+        return config.createEntityViewManager(criteriaBuilderFactory);
+    }
+
+    @Bean
+    public JPAQueryFactory jpaQueryFactory() {
+        return new JPAQueryFactory(entityManager);
+    }
+
+    @Bean
+    public BlazeJPAQueryFactory blazeJPAQueryFactory(@Lazy CriteriaBuilderFactory criteriaBuilderFactory) {
+        return new BlazeJPAQueryFactory(entityManager, criteriaBuilderFactory);
+    }
+}
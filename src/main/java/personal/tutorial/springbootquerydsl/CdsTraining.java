@@ -0,0 +1,20 @@
+package personal.tutorial.springbootquerydsl;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import personal.tutorial.springbootquerydsl.dto.MemberSearchCondition;
+import personal.tutorial.springbootquerydsl.repository.MemberQueryRepository;
+
+/**
+ * CDS 학습 실행 전용 main (./gradlew cdsArchive 에서만 쓴다).
+ * 애플리케이션을 그대로 띄우고 쿼리 경로를 한 번 타서 Q 타입/Hibernate 쿼리 클래스까지 읽은 뒤 종료한다.
+ * AOT 로 빌드했을 때도 조건 평가 없이 같은 컨텍스트를 쓰도록 빈이 아니라 별도 main 으로 둔다.
+ */
+public class CdsTraining {
+
+    public static void main(String[] args) {
+        ConfigurableApplicationContext context = SpringApplication.run(SpringBootQueryDslApplication.class, args);
+        context.getBean(MemberQueryRepository.class).search(new MemberSearchCondition());
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,78 @@
+package personal.tutorial.springbootquerydsl;
+
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.view.EntityViewManager;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import personal.tutorial.springbootquerydsl.dto.MemberDto;
+import personal.tutorial.springbootquerydsl.dto.MemberTeamDto;
+import personal.tutorial.springbootquerydsl.dto.MemberView;
+import personal.tutorial.springbootquerydsl.dto.MemberWithTeamView;
+import personal.tutorial.springbootquerydsl.dto.QMemberDto;
+import personal.tutorial.springbootquerydsl.dto.QMemberTeamDto;
+import personal.tutorial.springbootquerydsl.dto.TeamView;
+import personal.tutorial.springbootquerydsl.dto.TeamWithMembersView;
+import personal.tutorial.springbootquerydsl.dto.UserDto;
+import personal.tutorial.springbootquerydsl.entity.QHello;
+import personal.tutorial.springbootquerydsl.entity.QMember;
+import personal.tutorial.springbootquerydsl.entity.QMemberAgeCte;
+import personal.tutorial.springbootquerydsl.entity.QTeam;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * GraalVM native image 용 리플렉션/리소스/프록시 힌트 (./gradlew nativeCompile -Pnative).
+ * 엔티티와 스프링 빈은 Spring AOT 가, H2/Hikari/Caffeine 은 reachability metadata 저장소가 처리하므로
+ * 여기에는 그 둘이 모르는 것만 둔다.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // QueryDSL 은 ConstructorExpression/QBean 으로, Hibernate 는 "select new" 로 DTO 를 리플렉션으로 만든다
+        for (Class<?> dto : List.of(MemberDto.class, MemberTeamDto.class, UserDto.class)) {
+            hints.reflection().registerType(dto, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+        }
+        // 생성된 Q 타입 (src/main/generated)
+        for (Class<?> qType : List.of(QMember.class, QTeam.class, QHello.class, QMemberAgeCte.class,
+                QMemberDto.class, QMemberTeamDto.class)) {
+            hints.reflection().registerType(qType, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+
+        // Blaze-Persistence 는 ServiceLoader 로 구현체를 찾는다
+        hints.resources().registerPattern("META-INF/services/com.blazebit.*");
+        for (String provider : List.of(
+                "com.blazebit.persistence.impl.CriteriaBuilderConfigurationProviderImpl",
+                "com.blazebit.persistence.integration.hibernate.Hibernate62EntityManagerFactoryIntegrator",
+                "com.blazebit.persistence.view.impl.EntityViewConfigurationProviderImpl")) {
+            hints.reflection().registerType(TypeReference.of(provider), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        // Entity View 구현은 annotation processor 가 만든 <View>Impl 을 이름으로 찾아 쓴다 (-Pnative 빌드에서만 생긴다)
+        for (Class<?> view : List.of(MemberView.class, MemberWithTeamView.class, TeamView.class, TeamWithMembersView.class)) {
+            hints.reflection().registerType(TypeReference.of(view.getName() + "Impl"), MemberCategory.values());
+        }
+
+        // BlazePersistenceConfiguration 의 @Lazy 주입 지점은 JDK 프록시로 만들어진다
+        hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(CriteriaBuilderFactory.class));
+        hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(EntityViewManager.class));
+
+        // datasource-proxy 가 감싼 JDBC 객체 (JdkJdbcProxyFactory 와 같은 인터페이스 순서)
+        for (Class<?> jdbcType : List.of(Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class)) {
+            hints.proxies().registerJdkProxy(ProxyJdbcObject.class, jdbcType);
+        }
+
+        // Caffeine JCache 설정, Lucene 코덱(SPI)
+        hints.resources().registerPattern("application.conf");
+        hints.resources().registerPattern("META-INF/services/org.apache.lucene.*");
+    }
+}
@@ -2,8 +2,10 @@ package personal.tutorial.springbootquerydsl;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class SpringBootQueryDslApplication {
 
     public static void main(String[] args) {
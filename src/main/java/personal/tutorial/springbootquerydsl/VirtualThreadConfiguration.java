@@ -0,0 +1,47 @@
+package personal.tutorial.springbootquerydsl;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 가상 스레드 모드 (Java 21 이상, virtual 프로파일).
+ * 톰캣 요청 처리와 MVC 비동기 작업(StreamingResponseBody)을 가상 스레드에서 실행한다.
+ * Java 17 로도 컴파일되도록 newVirtualThreadPerTaskExecutor 는 리플렉션으로 부른다.
+ * <p>
+ * 요청 수는 톰캣 스레드 수에 묶이지 않지만 DB 동시 접근은 여전히 Hikari 풀 크기까지다.
+ * 풀을 기다리는 가상 스레드는 park 되므로 캐리어 스레드를 잡지 않는다.
+ * 다만 H2 드라이버 안의 synchronized 구간에서는 캐리어가 고정(pinning)되므로,
+ * 캐리어 수(jdk.virtualThreadScheduler.maxPoolSize)를 풀 크기 이상으로 둔다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("가상 스레드 모드는 Java 21 이상에서만 사용할 수 있습니다. (현재 "
+                    + System.getProperty("java.version") + ")", e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+}
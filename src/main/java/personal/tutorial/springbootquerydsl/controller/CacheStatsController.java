@@ -0,0 +1,24 @@
+package personal.tutorial.springbootquerydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import personal.tutorial.springbootquerydsl.monitoring.SecondLevelCacheMetrics;
+
+import java.util.Map;
+
+/**
+ * 2차 캐시 region 별 hit/miss/put 확인용. 쿼리 캐시는 default-query-results-region, team-query 같은 region 으로 나온다.
+ * 같은 값이 /actuator/metrics/cache.gets?tag=cache:{region} 에도 있다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class CacheStatsController {
+
+    private final SecondLevelCacheMetrics secondLevelCacheMetrics;
+
+    @GetMapping("/cache/stats")
+    public Map<String, Map<String, Long>> cacheStats() {
+        return secondLevelCacheMetrics.regions();
+    }
+}
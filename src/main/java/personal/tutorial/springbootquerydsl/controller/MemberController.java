@@ -0,0 +1,37 @@
+package personal.tutorial.springbootquerydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import personal.tutorial.springbootquerydsl.dto.MemberSearchCondition;
+import personal.tutorial.springbootquerydsl.dto.MemberTeamDto;
+import personal.tutorial.springbootquerydsl.repository.MemberQueryRepository;
+import personal.tutorial.springbootquerydsl.service.UsernameSearch;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberController {
+
+    private final MemberQueryRepository memberQueryRepository;
+    private final UsernameSearch usernameSearch;
+
+    @GetMapping("/members")
+    public List<MemberTeamDto> searchMembers(MemberSearchCondition condition) {
+        return memberQueryRepository.search(condition);
+    }
+
+    @GetMapping("/members/page")
+    public Page<MemberTeamDto> searchMemberPage(MemberSearchCondition condition, Pageable pageable) {
+        return memberQueryRepository.searchPage(condition, pageable);
+    }
+
+    @GetMapping("/members/autocomplete")
+    public List<String> autocomplete(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        return usernameSearch.autocomplete(prefix, limit);
+    }
+}
@@ -0,0 +1,83 @@
+package personal.tutorial.springbootquerydsl.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import personal.tutorial.springbootquerydsl.dto.MemberDto;
+import personal.tutorial.springbootquerydsl.repository.MemberStreamRepository;
+import personal.tutorial.springbootquerydsl.repository.QueryStreams;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 회원 전체를 NDJSON/CSV 로 내려준다.
+ * 커서에서 읽은 행을 바로 응답 스트림에 쓰므로 결과 List 나 JSON 문서 전체를 메모리에 만들지 않는다.
+ * 소켓 쓰기가 막히면 커서 읽기도 같이 멈추므로 클라이언트 속도에 맞춰진다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class MemberExportController {
+
+    private static final int FLUSH_EVERY = 500; //이만큼 쓸 때마다 chunk 로 내보내서 첫 바이트가 빨리 나가게 한다
+
+    private final MemberStreamRepository memberStreamRepository;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/members/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (csv) {
+                writer.write("username,age\n");
+            }
+            long[] written = {0};
+            memberStreamRepository.forEachMemberDto(QueryStreams.DEFAULT_FETCH_SIZE, dto -> {
+                try {
+                    writer.write(csv ? toCsv(dto) : objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                    if (++written[0] % FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); //클라이언트가 끊으면 여기서 커서 읽기를 멈춘다
+                }
+            });
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=members." + (csv ? "csv" : "ndjson"))
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private static String toCsv(MemberDto dto) {
+        return csvField(dto.getUsername()) + "," + dto.getAge();
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,5 @@
+package personal.tutorial.springbootquerydsl.datasource;
+
+public enum DataSourceRoute {
+    PRIMARY, REPLICA
+}
@@ -0,0 +1,83 @@
+package personal.tutorial.springbootquerydsl.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * app.datasource.replica.jdbc-url 이 있으면 읽기/쓰기 분리 DataSource 를 만든다 (replica 프로파일 참고).
+ * primary 는 spring.datasource.*, 레플리카는 app.datasource.replica.* (HikariDataSource 속성) 로 설정한다.
+ * 두 풀의 Hikari 메트릭은 pool 태그(primary/replica)로 나뉘어 hikaricp.* 에 올라간다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.jdbc-url")
+public class ReadWriteRoutingConfiguration implements DisposableBean {
+
+    // 풀은 빈으로 등록하지 않는다 (등록하면 쿼리 측정용 프록시가 풀마다 한 번 더 감싼다), 종료할 때 직접 닫는다
+    private final List<HikariDataSource> pools = new CopyOnWriteArrayList<>();
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(Environment environment, MeterRegistry registry) {
+        Binder binder = Binder.get(environment);
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(
+                replicaPool(binder, registry),
+                environment.getProperty("app.datasource.routing.lag-query"),
+                binder.bind("app.datasource.routing.max-lag", Duration.class).orElse(Duration.ofSeconds(5)),
+                binder.bind("app.datasource.routing.check-interval", Duration.class).orElse(Duration.ofSeconds(5)));
+        Gauge.builder("datasource.replica.lag", monitor, ReplicaLagMonitor::getLagSeconds)
+                .baseUnit("seconds")
+                .register(registry);
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 ReplicaLagMonitor replicaLagMonitor, MeterRegistry registry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        pools.add(primary);
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(replicaLagMonitor, registry);
+        routing.setTargetDataSources(Map.of(
+                DataSourceRoute.PRIMARY, primary,
+                DataSourceRoute.REPLICA, replicaLagMonitor.getReplica()));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private HikariDataSource replicaPool(Binder binder, MeterRegistry registry) {
+        HikariDataSource replica = new HikariDataSource();
+        binder.bind("app.datasource.replica", Bindable.ofInstance(replica));
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        pools.add(replica);
+        return replica;
+    }
+}
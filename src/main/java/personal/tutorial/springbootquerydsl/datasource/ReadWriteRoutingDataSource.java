@@ -0,0 +1,40 @@
+package personal.tutorial.springbootquerydsl.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@code @Transactional(readOnly = true)} 안의 커넥션은 레플리카로, 나머지는 primary 로 보낸다.
+ * 트랜잭션 속성이 정해진 다음 커넥션을 가져와야 하므로 반드시 LazyConnectionDataSourceProxy 로 감싸서 쓴다.
+ * 레플리카가 지연되었거나 죽었으면 읽기 전용이라도 primary 로 보낸다 (route=fallback).
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryRoute;
+    private final Counter replicaRoute;
+    private final Counter fallbackRoute;
+
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor lagMonitor, MeterRegistry registry) {
+        this.lagMonitor = lagMonitor;
+        this.primaryRoute = Counter.builder("datasource.route").tag("route", "primary").register(registry);
+        this.replicaRoute = Counter.builder("datasource.route").tag("route", "replica").register(registry);
+        this.fallbackRoute = Counter.builder("datasource.route").tag("route", "fallback").register(registry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryRoute.increment();
+            return DataSourceRoute.PRIMARY;
+        }
+        if (!lagMonitor.isUsable()) {
+            fallbackRoute.increment();
+            return DataSourceRoute.PRIMARY;
+        }
+        replicaRoute.increment();
+        return DataSourceRoute.REPLICA;
+    }
+}
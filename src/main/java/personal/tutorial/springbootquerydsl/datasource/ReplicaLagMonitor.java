@@ -0,0 +1,83 @@
+package personal.tutorial.springbootquerydsl.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주기적으로 레플리카 지연(초)을 재서, 허용치를 넘거나 레플리카에 붙을 수 없으면 읽기를 primary 로 돌린다.
+ * lagQuery 는 지연 초를 숫자 하나로 돌려주는 SQL 이다 (예: PostgreSQL
+ * {@code select extract(epoch from now() - pg_last_xact_replay_timestamp())}).
+ * 없으면 연결 가능 여부만 본다.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean usable = true;
+    private volatile double lagSeconds;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, Duration checkInterval) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, checkInterval.toMillis(), checkInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public DataSource getReplica() {
+        return replica;
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    void check() {
+        boolean wasUsable = usable;
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                lagSeconds = 0;
+                usable = connection.isValid(1);
+            } else {
+                try (Statement statement = connection.createStatement();
+                     ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                    lagSeconds = resultSet.next() ? resultSet.getDouble(1) : Double.MAX_VALUE;
+                }
+                usable = lagSeconds <= maxLag.toMillis() / 1000.0;
+            }
+        } catch (Exception e) {
+            usable = false;
+            log.debug("replica check failed", e);
+        }
+        if (wasUsable != usable) {
+            log.warn("replica {} (lag={}s, max={}s)", usable ? "복구, 읽기를 다시 레플리카로 보냄" : "사용 불가, 읽기를 primary 로 보냄",
+                    lagSeconds, maxLag.toSeconds());
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,22 @@
+package personal.tutorial.springbootquerydsl.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class BulkResult {
+    private final long rows;
+    private final long chunks;
+    private final long elapsedMillis;
+
+    public BulkResult(long rows, long chunks, long elapsedMillis) {
+        this.rows = rows;
+        this.chunks = chunks;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rows * 1000.0 : rows * 1000.0 / elapsedMillis;
+    }
+}
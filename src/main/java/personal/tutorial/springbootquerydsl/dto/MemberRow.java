@@ -0,0 +1,17 @@
+package personal.tutorial.springbootquerydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 벌크 적재용 입력 한 줄. teamName 이 없으면 팀 없는 회원으로 적재한다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberRow {
+    private String username;
+    private int age;
+    private String teamName;
+}
@@ -0,0 +1,12 @@
+package personal.tutorial.springbootquerydsl.dto;
+
+import lombok.Data;
+
+@Data
+public class MemberSearchCondition {
+    //회원명, 팀명, 나이(ageGoe, ageLoe)
+    private String username;
+    private String teamName;
+    private Integer ageGoe;
+    private Integer ageLoe;
+}
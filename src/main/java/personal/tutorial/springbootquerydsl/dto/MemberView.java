@@ -0,0 +1,19 @@
+package personal.tutorial.springbootquerydsl.dto;
+
+import com.blazebit.persistence.view.EntityView;
+import com.blazebit.persistence.view.IdMapping;
+import personal.tutorial.springbootquerydsl.entity.Member;
+
+/**
+ * 회원 Entity View. member_id, username, age 컬럼만 select 된다.
+ */
+@EntityView(Member.class)
+public interface MemberView {
+
+    @IdMapping
+    Long getId();
+
+    String getUsername();
+
+    int getAge();
+}
@@ -0,0 +1,13 @@
+package personal.tutorial.springbootquerydsl.dto;
+
+import com.blazebit.persistence.view.EntityView;
+import personal.tutorial.springbootquerydsl.entity.Member;
+
+/**
+ * 회원 + 소속 팀. team 은 left join 으로 같은 쿼리에서 id, name 만 가져온다 (팀이 없으면 null).
+ */
+@EntityView(Member.class)
+public interface MemberWithTeamView extends MemberView {
+
+    TeamView getTeam();
+}
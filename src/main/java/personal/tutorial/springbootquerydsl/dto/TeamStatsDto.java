@@ -0,0 +1,17 @@
+package personal.tutorial.springbootquerydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class TeamStatsDto {
+    private Long teamId;
+    private long count;
+    private long sum;
+    private double avg;
+    private Integer max; // 회원이 없으면 null
+    private Integer min;
+}
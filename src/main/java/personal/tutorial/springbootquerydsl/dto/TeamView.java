@@ -0,0 +1,14 @@
+package personal.tutorial.springbootquerydsl.dto;
+
+import com.blazebit.persistence.view.EntityView;
+import com.blazebit.persistence.view.IdMapping;
+import personal.tutorial.springbootquerydsl.entity.Team;
+
+@EntityView(Team.class)
+public interface TeamView {
+
+    @IdMapping
+    Long getId();
+
+    String getName();
+}
@@ -0,0 +1,20 @@
+package personal.tutorial.springbootquerydsl.dto;
+
+import com.blazebit.persistence.view.EntityView;
+import com.blazebit.persistence.view.FetchStrategy;
+import com.blazebit.persistence.view.Mapping;
+import personal.tutorial.springbootquerydsl.entity.Team;
+
+import java.util.List;
+
+/**
+ * 팀 + 소속 회원.
+ * members 는 조인하지 않고 SUBSELECT 로 가져온다. 팀 쿼리를 서브쿼리로 감싼 회원 쿼리가 한 번 더 나가므로
+ * 팀 목록을 페이징해도 행이 늘어나지 않고, 팀 수와 관계없이 쿼리는 2번이다.
+ */
+@EntityView(Team.class)
+public interface TeamWithMembersView extends TeamView {
+
+    @Mapping(value = "members", fetch = FetchStrategy.SUBSELECT)
+    List<MemberView> getMembers();
+}
@@ -5,14 +5,19 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED) //엔티티 생성에는 기본 생성자가 필요하다..
 @ToString(of = {"id", "username", "age"}) // 가급적 내부 필드만 활성화 할 것
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) //벌크 update/delete 를 실행하면 Hibernate 가 이 region 을 비운다
 public class Member {
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq")
+    @SequenceGenerator(name = "member_seq", sequenceName = "member_seq", allocationSize = 100) //pooled 방식, 시퀀스를 한 번 호출하면 id 100개를 메모리에서 나눠준다
     @Column(name = "member_id")
     private Long id;
     private String username;
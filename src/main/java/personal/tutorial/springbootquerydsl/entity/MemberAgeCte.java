@@ -0,0 +1,24 @@
+package personal.tutorial.springbootquerydsl.entity;
+
+import com.blazebit.persistence.CTE;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+
+/**
+ * 회원별 나이 집계를 윈도우 함수로 한 번에 계산해 두는 CTE.
+ * 실제 테이블이 아니라 blaze-persistence 가 WITH 절로 만들어 쓰는 엔티티다.
+ */
+@CTE
+@Entity
+@Getter
+public class MemberAgeCte {
+    @Id
+    private Long id;
+    private String username;
+    private Integer age;
+    private Long teamId;
+    private Integer maxAge; // 전체 최대 나이
+    private Double avgAge; // 전체 평균 나이
+    private Integer teamMaxAge; // 같은 팀 안에서의 최대 나이
+}
@@ -5,6 +5,9 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,8 +16,13 @@ import java.util.List;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED) //엔티티 생성에는 기본 생성자가 필요하다..
 @ToString(of = {"id", "name"})
+@BatchSize(size = 100) //Member.team 프록시를 초기화할 때 팀을 IN 절로 100개씩 묶어서 가져온다
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) //거의 바뀌지 않으므로 2차 캐시에 둔다
 public class Team {
-    @Id @GeneratedValue @Column(name = "team_id")
+    @Id @Column(name = "team_id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq")
+    @SequenceGenerator(name = "team_seq", sequenceName = "team_seq", allocationSize = 100)
     private Long id;
     private String name;
 
@@ -23,6 +31,8 @@ public class Team {
     }
 
     @OneToMany(mappedBy = "team") //Member 객체 중 Column 명 team 에 대응시킨다는 뜻이ㅏㄷ.
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE) //회원 id 목록만 캐시되므로 Member 도 캐시되어 있어야 의미가 있다
+    @BatchSize(size = 100) //팀 목록을 돌면서 members 를 건드려도 팀마다 쿼리가 나가지 않고 100개씩 IN 절로 묶인다
     private List<Member> members = new ArrayList<>();
 
     public void setName(String name) {
@@ -0,0 +1,38 @@
+package personal.tutorial.springbootquerydsl.monitoring;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceProxyConfiguration {
+
+    /**
+     * DataSource 를 datasource-proxy 로 감싸서 모든 JDBC 실행이 QueryMonitor(측정), QueryBudget(N+1 감지)을 거치게 한다.
+     * BeanPostProcessor 는 일찍 만들어지므로 리스너는 감쌀 때 꺼낸다.
+     */
+    @Bean
+    public static BeanPostProcessor queryMonitorDataSourcePostProcessor(ObjectProvider<QueryMonitor> queryMonitor,
+                                                                        ObjectProvider<QueryBudget> queryBudget) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(queryMonitor.getObject())
+                            .listener(queryBudget.getObject())
+                            .proxyResultSet() //SELECT 로 읽은 행 수를 센다
+                            .methodListener(queryMonitor.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
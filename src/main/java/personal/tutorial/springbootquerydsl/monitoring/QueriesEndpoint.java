@@ -0,0 +1,83 @@
+package personal.tutorial.springbootquerydsl.monitoring;
+
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /actuator/queries
+ * - sql: JDBC SQL shape 별 실행 횟수, 평균/최대/p50/p99 지연시간, 행 수 (QueryMonitor)
+ * - jpql: JPQL(QueryDSL 이 만든 것 포함) 별 실행 횟수, 반환 행 수 (Hibernate 통계)
+ * - slowQueries: 임계값을 넘은 최근 쿼리와 바인딩 값
+ */
+@Component
+@Endpoint(id = "queries")
+@RequiredArgsConstructor
+public class QueriesEndpoint {
+
+    private final QueryMonitor queryMonitor;
+    private final EntityManagerFactory emf;
+
+    @ReadOperation
+    public Map<String, Object> queries() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("sql", sqlShapes());
+        result.put("jpql", jpqlShapes());
+        result.put("slowQueries", queryMonitor.getSlowQueries());
+        return result;
+    }
+
+    private List<Map<String, Object>> sqlShapes() {
+        List<Map<String, Object>> shapes = new ArrayList<>();
+        for (QueryMonitor.Shape shape : queryMonitor.getShapes()) {
+            HistogramSnapshot snapshot = shape.getLatency().takeSnapshot();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", shape.getId());
+            row.put("sql", shape.getSql());
+            row.put("count", snapshot.count());
+            row.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+            row.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                row.put("p" + Math.round(percentile.percentile() * 100) + "Ms", percentile.value(TimeUnit.MILLISECONDS));
+            }
+            row.put("failures", shape.getFailures().count());
+            row.put("rows", shape.getRows().totalAmount()); //SELECT 는 읽은 행, DML 은 영향받은 행
+            shapes.add(row);
+        }
+        shapes.sort(Comparator.comparing(row -> -(long) row.get("count")));
+        return shapes;
+    }
+
+    private List<Map<String, Object>> jpqlShapes() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        List<Map<String, Object>> shapes = new ArrayList<>();
+        if (!statistics.isStatisticsEnabled()) {
+            return shapes;
+        }
+        for (String query : statistics.getQueries()) {
+            QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("jpql", query);
+            row.put("count", queryStatistics.getExecutionCount());
+            row.put("rows", queryStatistics.getExecutionRowCount());
+            row.put("avgMs", queryStatistics.getExecutionAvgTime());
+            row.put("maxMs", queryStatistics.getExecutionMaxTime());
+            shapes.add(row);
+        }
+        return shapes;
+    }
+}
@@ -0,0 +1,83 @@
+package personal.tutorial.springbootquerydsl.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * 요청/트랜잭션별 SQL 실행 횟수 예산.
+ * 트랜잭션 안에서 첫 SQL 이 실행될 때 트랜잭션 스코프를 열고, 커밋 직전에 예산을 검사한다.
+ * mode 가 fail 이면 예외를 던지고(커밋 전이면 롤백), log 면 경고만 남긴다.
+ */
+@Slf4j
+@Component
+public class QueryBudget implements QueryExecutionListener {
+
+    private static final Object TRANSACTION_SCOPE_KEY = QueryBudget.class.getName() + ".transactionScope";
+
+    private final int maxStatements;
+    private final int maxRepeats;
+    private final boolean fail;
+
+    public QueryBudget(@Value("${query-monitoring.budget.max-statements:50}") int maxStatements,
+                       @Value("${query-monitoring.budget.max-repeats:10}") int maxRepeats,
+                       @Value("${query-monitoring.budget.mode:log}") String mode) {
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+        this.fail = "fail".equalsIgnoreCase(mode);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            QueryCounter.record(queryInfo.getQuery());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(TRANSACTION_SCOPE_KEY)) {
+            openTransactionScope(queryInfoList);
+        }
+    }
+
+    public void check(QueryScope scope) {
+        try {
+            scope.assertStatementCountAtMost(maxStatements).assertNoRepeatedStatements(maxRepeats);
+        } catch (QueryBudgetExceededException e) {
+            if (fail) {
+                throw e;
+            }
+            log.warn(e.getMessage());
+        }
+    }
+
+    private void openTransactionScope(List<QueryInfo> firstQueries) {
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        QueryScope scope = QueryCounter.start("transaction " + (name == null ? "" : name));
+        for (QueryInfo queryInfo : firstQueries) {
+            scope.record(queryInfo.getQuery()); // 스코프를 열게 만든 첫 SQL 도 센다
+        }
+        TransactionSynchronizationManager.bindResource(TRANSACTION_SCOPE_KEY, scope);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                check(scope);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_SCOPE_KEY);
+                scope.close();
+            }
+        });
+    }
+}
@@ -0,0 +1,7 @@
+package personal.tutorial.springbootquerydsl.monitoring;
+
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,31 @@
+package personal.tutorial.springbootquerydsl.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * HTTP 요청 하나에서 실행된 SQL 수를 세고 QueryBudget 으로 검사한다.
+ * StreamingResponseBody 처럼 다른 스레드에서 실행되는 부분은 세지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final QueryBudget queryBudget;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (QueryScope scope = QueryCounter.start(request.getMethod() + " " + request.getRequestURI())) {
+            filterChain.doFilter(request, response);
+            queryBudget.check(scope);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package personal.tutorial.springbootquerydsl.monitoring;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 현재 스레드에 열린 QueryScope 들에 SQL 실행을 기록한다. 스코프는 중첩될 수 있다(요청 안의 테스트 블록 등).
+ * <pre>
+ * try (QueryScope scope = QueryCounter.start("teams")) {
+ *     teamQueryRepository.findTeamsWithMembers(0, 10);
+ *     scope.assertStatementCountAtMost(2);
+ * }
+ * </pre>
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Deque<QueryScope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private QueryCounter() {
+    }
+
+    public static QueryScope start(String name) {
+        QueryScope scope = new QueryScope(name);
+        SCOPES.get().push(scope);
+        return scope;
+    }
+
+    static void record(String sql) {
+        Deque<QueryScope> scopes = SCOPES.get();
+        if (scopes.isEmpty()) {
+            return;
+        }
+        for (QueryScope scope : scopes) {
+            scope.record(sql);
+        }
+    }
+
+    static void end(QueryScope scope) {
+        Deque<QueryScope> scopes = SCOPES.get();
+        scopes.remove(scope);
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+        }
+    }
+}
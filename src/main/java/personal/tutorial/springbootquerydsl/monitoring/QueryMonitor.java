@@ -0,0 +1,233 @@
+package personal.tutorial.springbootquerydsl.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDBC 실행마다 호출되어 SQL 모양(shape)별 지연시간 히스토그램, 행 수, 실행 횟수를 Micrometer 에 기록한다.
+ * 행 수(db.query.rows)는 DML 이면 영향받은 행, SELECT 면 ResultSet 에서 실제로 읽은 행이다. Hibernate 통계와 무관하다.
+ * PreparedStatement SQL 은 값이 ? 로 빠져 있으므로 SQL 문자열 자체가 shape 가 된다.
+ * 임계값보다 느린 쿼리는 바인딩 값과 함께 최근 {@value #MAX_SLOW_QUERIES}건을 보관한다.
+ * show_sql 처럼 매번 문자열을 만들지 않고, 맵 조회와 타이머 기록만 하므로 평소 경로의 부담은 작다.
+ */
+@Slf4j
+@Component
+public class QueryMonitor implements QueryExecutionListener, MethodExecutionListener {
+
+    static final int MAX_SLOW_QUERIES = 100;
+    private static final String OTHER = "other";
+
+    private final MeterRegistry registry;
+    private final Duration slowQueryThreshold;
+    private final int maxShapes;
+    private final ConcurrentMap<String, Shape> shapes = new ConcurrentHashMap<>();
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+    // 아직 닫히지 않은 SELECT 결과. JDBC ResultSet 은 equals 를 재정의하지 않으므로 객체 자체가 키다
+    private final ConcurrentMap<ResultSet, ReadRows> openResultSets = new ConcurrentHashMap<>();
+
+    public QueryMonitor(MeterRegistry registry,
+                        @Value("${query-monitoring.slow-query-threshold:200ms}") Duration slowQueryThreshold,
+                        @Value("${query-monitoring.max-shapes:500}") int maxShapes) {
+        this.registry = registry;
+        this.slowQueryThreshold = slowQueryThreshold;
+        this.maxShapes = maxShapes;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty()) {
+            return;
+        }
+        String sql = queryInfoList.get(0).getQuery();
+        Shape shape = shapeOf(sql);
+        long elapsed = execInfo.getElapsedTime();
+        shape.latency.record(elapsed, TimeUnit.MILLISECONDS);
+        shape.statements.increment();
+        if (!execInfo.isSuccess()) {
+            shape.failures.increment();
+        }
+        if (execInfo.getResult() instanceof ResultSet resultSet) {
+            openResultSets.put(resultSet, new ReadRows(shape)); // 행 수는 다 읽거나 닫을 때 기록한다
+        } else {
+            long rows = affectedRows(execInfo.getResult());
+            if (rows >= 0) {
+                shape.rows.record(rows);
+            }
+        }
+        if (elapsed >= slowQueryThreshold.toMillis()) {
+            captureSlowQuery(shape, sql, queryInfoList, elapsed);
+        }
+    }
+
+    /**
+     * ResultSet 프록시(proxyResultSet)의 메서드 호출마다 불린다. next() 가 true 인 횟수가 읽은 행 수다.
+     */
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (!(executionContext.getTarget() instanceof ResultSet resultSet)) {
+            return;
+        }
+        String method = executionContext.getMethod().getName();
+        if ("next".equals(method)) {
+            if (Boolean.TRUE.equals(executionContext.getResult())) {
+                ReadRows readRows = openResultSets.get(resultSet);
+                if (readRows != null) {
+                    readRows.count++;
+                }
+            } else {
+                recordReadRows(resultSet);
+            }
+        } else if ("close".equals(method)) {
+            recordReadRows(resultSet); // 끝까지 읽지 않고 닫은 경우 (limit, 스트림 중단)
+        }
+    }
+
+    private void recordReadRows(ResultSet resultSet) {
+        ReadRows readRows = openResultSets.remove(resultSet);
+        if (readRows != null) {
+            readRows.shape.rows.record(readRows.count);
+        }
+    }
+
+    public Collection<Shape> getShapes() {
+        return shapes.values();
+    }
+
+    public List<SlowQuery> getSlowQueries() {
+        synchronized (slowQueries) {
+            return new ArrayList<>(slowQueries);
+        }
+    }
+
+    private Shape shapeOf(String sql) {
+        Shape shape = shapes.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        if (shapes.size() >= maxShapes) {
+            // 동적으로 만든 SQL 이 끝없이 늘어나도 메트릭 개수는 묶어둔다
+            return shapes.computeIfAbsent(OTHER, key -> new Shape(OTHER, "(max-shapes 초과)", registry));
+        }
+        return shapes.computeIfAbsent(sql, key -> new Shape(shapeId(key), key, registry));
+    }
+
+    /**
+     * SQL 의 SHA-256 앞 12자리(48비트). hashCode 와 달리 shape 500개 수준에서 충돌을 걱정할 필요가 없고,
+     * 재시작해도 같은 SQL 은 같은 id 라서 대시보드의 shape 태그가 이어진다. shape 마다 한 번만 계산한다.
+     */
+    static String shapeId(String sql) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sql.getBytes(StandardCharsets.UTF_8));
+            return "q" + HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // 모든 JVM 이 SHA-256 을 지원해야 한다
+        }
+    }
+
+    private void captureSlowQuery(Shape shape, String sql, List<QueryInfo> queryInfoList, long elapsed) {
+        List<List<Object>> parameters = new ArrayList<>();
+        for (QueryInfo queryInfo : queryInfoList) {
+            for (List<ParameterSetOperation> operations : queryInfo.getParametersList()) {
+                List<Object> values = new ArrayList<>(operations.size());
+                for (ParameterSetOperation operation : operations) {
+                    Object[] args = operation.getArgs();
+                    values.add(args.length > 1 ? args[1] : null);
+                }
+                parameters.add(values);
+            }
+        }
+        SlowQuery slowQuery = new SlowQuery(shape.getId(), sql, parameters, elapsed, Instant.now());
+        synchronized (slowQueries) {
+            if (slowQueries.size() == MAX_SLOW_QUERIES) {
+                slowQueries.removeFirst();
+            }
+            slowQueries.addLast(slowQuery);
+        }
+        log.warn("slow query {}ms [{}] {} params={}", elapsed, shape.getId(), sql, parameters);
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer count) {
+            return count;
+        }
+        if (result instanceof int[] counts) {
+            long sum = 0;
+            for (int count : counts) {
+                sum += Math.max(count, 0);
+            }
+            return sum;
+        }
+        return -1;
+    }
+
+    /**
+     * ResultSet 하나에서 읽은 행 수. ResultSet 을 읽는 스레드 하나만 고친다.
+     */
+    private static class ReadRows {
+        private final Shape shape;
+        private long count;
+
+        ReadRows(Shape shape) {
+            this.shape = shape;
+        }
+    }
+
+    @Getter
+    public static class Shape {
+        private final String id;
+        private final String sql;
+        private final Timer latency;
+        private final Counter statements;
+        private final Counter failures;
+        private final DistributionSummary rows;
+
+        Shape(String id, String sql, MeterRegistry registry) {
+            this.id = id;
+            this.sql = sql;
+            this.latency = Timer.builder("db.query")
+                    .tag("shape", id)
+                    .publishPercentileHistogram()
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry);
+            this.statements = Counter.builder("db.query.statements").tag("shape", id).register(registry);
+            this.failures = Counter.builder("db.query.failures").tag("shape", id).register(registry);
+            this.rows = DistributionSummary.builder("db.query.rows").tag("shape", id).register(registry);
+        }
+    }
+}
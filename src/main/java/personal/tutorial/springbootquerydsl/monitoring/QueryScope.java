@@ -0,0 +1,64 @@
+package personal.tutorial.springbootquerydsl.monitoring;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 한 구간(HTTP 요청, 트랜잭션, 테스트 블록)에서 실행된 SQL 수.
+ * 같은 PreparedStatement SQL 이 바인딩 값만 바뀌어 여러 번 실행되면 N+1 을 의심한다.
+ * 한 스레드에서만 쓰이므로 동기화하지 않는다.
+ */
+public class QueryScope implements AutoCloseable {
+
+    @Getter
+    private final String name;
+    @Getter
+    private int statementCount;
+    private final Map<String, Integer> countBySql = new LinkedHashMap<>();
+
+    QueryScope(String name) {
+        this.name = name;
+    }
+
+    void record(String sql) {
+        statementCount++;
+        countBySql.merge(sql, 1, Integer::sum);
+    }
+
+    /**
+     * maxRepeats 보다 많이 반복된 SQL 과 반복 횟수
+     */
+    public Map<String, Integer> getRepeatedStatements(int maxRepeats) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        countBySql.forEach((sql, count) -> {
+            if (count > maxRepeats) {
+                repeated.put(sql, count);
+            }
+        });
+        return repeated;
+    }
+
+    public QueryScope assertStatementCountAtMost(int maxStatements) {
+        if (statementCount > maxStatements) {
+            throw new QueryBudgetExceededException(
+                    name + ": SQL " + statementCount + "번 실행 (허용 " + maxStatements + "번) " + countBySql.keySet());
+        }
+        return this;
+    }
+
+    public QueryScope assertNoRepeatedStatements(int maxRepeats) {
+        Map<String, Integer> repeated = getRepeatedStatements(maxRepeats);
+        if (!repeated.isEmpty()) {
+            throw new QueryBudgetExceededException(
+                    name + ": 같은 SQL 이 바인딩 값만 바뀌어 반복 실행됨 (N+1 의심) " + repeated);
+        }
+        return this;
+    }
+
+    @Override
+    public void close() {
+        QueryCounter.end(this);
+    }
+}
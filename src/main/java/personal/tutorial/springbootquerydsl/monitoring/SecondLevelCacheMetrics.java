@@ -0,0 +1,69 @@
+package personal.tutorial.springbootquerydsl.monitoring;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import io.micrometer.core.instrument.search.Search;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hibernate 2차 캐시 region(JCache + Caffeine)별 hit/miss/put 을 Micrometer 에 올린다 (cache.gets, cache.puts, cache 태그 = region).
+ * 카운터는 캐시가 직접 센다(application.conf 의 monitoring.statistics). Hibernate 통계(app.statistics.enabled)와 무관하다.
+ * DataSource 를 감싸는 QueryMonitor 가 MeterRegistry 를 쓰므로, 순환 참조를 피해 애플리케이션이 뜬 뒤에 묶는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics {
+
+    private final EntityManagerFactory emf;
+    private final MeterRegistry registry;
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void bind() {
+        CacheManager cacheManager = cacheManager();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            JCacheMetrics.monitor(registry, cacheManager.getCache(cacheName));
+        }
+    }
+
+    /**
+     * region 이름 순으로 hit/miss/put
+     */
+    public Map<String, Map<String, Long>> regions() {
+        Map<String, Map<String, Long>> result = new TreeMap<>();
+        for (String cacheName : cacheManager().getCacheNames()) {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            counts.put("hit", count("cache.gets", cacheName, "hit"));
+            counts.put("miss", count("cache.gets", cacheName, "miss"));
+            counts.put("put", count("cache.puts", cacheName, null));
+            result.put(cacheName, counts);
+        }
+        return result;
+    }
+
+    private long count(String name, String cacheName, String result) {
+        Search search = registry.find(name).tag("cache", cacheName);
+        if (result != null) {
+            search = search.tag("result", result);
+        }
+        FunctionCounter counter = search.functionCounter();
+        return counter != null ? (long) counter.count() : 0;
+    }
+
+    private CacheManager cacheManager() {
+        JCacheRegionFactory regionFactory = (JCacheRegionFactory) emf.unwrap(SessionFactoryImplementor.class)
+                .getCache().getRegionFactory();
+        return regionFactory.getCacheManager();
+    }
+}
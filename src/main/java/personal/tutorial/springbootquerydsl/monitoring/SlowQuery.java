@@ -0,0 +1,17 @@
+package personal.tutorial.springbootquerydsl.monitoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class SlowQuery {
+    private final String shapeId;
+    private final String sql;
+    private final List<List<Object>> parameters; // batch 면 여러 줄
+    private final long elapsedMillis;
+    private final Instant executedAt;
+}
@@ -0,0 +1,107 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import com.blazebit.persistence.querydsl.BlazeJPAQuery;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.dsl.Expressions;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * BlazeJPAQuery 의 전체 건수를 CountStrategy 에 따라 센다.
+ * fetchResults()/fetchCount() 처럼 매번 전체 조인 COUNT 를 하지 않아도 되는 목록 화면용.
+ */
+@Component
+@Transactional(readOnly = true)
+public class CountExecutor {
+
+    private final EntityManager em;
+    private final String estimateSql;
+    private final Cache<String, CachedCount> cachedCounts = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
+    public CountExecutor(EntityManager em,
+                         @Value("${query-count.estimate-sql:select ROW_COUNT_ESTIMATE from INFORMATION_SCHEMA.TABLES where upper(TABLE_NAME) = upper(?1)}")
+                         String estimateSql) {
+        this.em = em;
+        this.estimateSql = estimateSql;
+    }
+
+    public CountResult count(BlazeJPAQuery<?> query, CountStrategy strategy) {
+        return switch (strategy.getKind()) {
+            case EXACT -> new CountResult(query.fetchCount(), true, false);
+            case CAPPED -> capped(query, strategy.getCap());
+            case CACHED -> cached(query, strategy);
+            case ESTIMATED -> estimated(query, strategy.getCap());
+        };
+    }
+
+    /**
+     * cap + 1 행만 가져와 보고 세므로 DB 는 cap 건을 찾으면 더 읽지 않는다.
+     */
+    private CountResult capped(BlazeJPAQuery<?> query, long cap) {
+        BlazeJPAQuery<Integer> probe = query.clone().select(Expressions.ONE);
+        probe.getMetadata().clearOrderBy(); // 정렬은 건수에 영향이 없다
+        int rows = probe.offset(0).limit(cap + 1).fetch().size();
+        return rows > cap ? new CountResult(cap, false, true) : new CountResult(rows, true, false);
+    }
+
+    private CountResult cached(BlazeJPAQuery<?> query, CountStrategy strategy) {
+        String key = cacheKey(query);
+        Instant now = Instant.now();
+        CachedCount cached = cachedCounts.getIfPresent(key);
+        if (cached != null && cached.expiresAt.isAfter(now)) {
+            return new CountResult(cached.value, false, false);
+        }
+        long value = query.fetchCount();
+        cachedCounts.put(key, new CachedCount(value, now.plus(strategy.getTtl())));
+        return new CountResult(value, true, false);
+    }
+
+    private CountResult estimated(BlazeJPAQuery<?> query, long fallbackCap) {
+        QueryMetadata metadata = query.getMetadata();
+        // 조건이 있거나 inner join 으로 걸러지면 테이블 통계로는 알 수 없다. left join 은 to-one 이라고 본다.
+        boolean rootOnly = metadata.getJoins().stream().skip(1).allMatch(join -> join.getType() == JoinType.LEFTJOIN);
+        if (metadata.getWhere() != null || !rootOnly) {
+            return capped(query, fallbackCap);
+        }
+        Object estimate = em.createNativeQuery(estimateSql)
+                .setParameter(1, tableName(metadata.getJoins().get(0).getTarget()))
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+        if (!(estimate instanceof Number number)) {
+            return capped(query, fallbackCap);
+        }
+        return new CountResult(number.longValue(), false, false);
+    }
+
+    /**
+     * 같은 JPQL 이라도 조건 값이 다르면 다른 키. QueryDSL 표현식의 toString 에는 상수 값이 들어간다.
+     */
+    private static String cacheKey(BlazeJPAQuery<?> query) {
+        QueryMetadata metadata = query.getMetadata();
+        return metadata.getJoins() + "|" + metadata.getWhere() + "|" + metadata.getGroupBy() + "|" + metadata.getHaving();
+    }
+
+    private String tableName(Object rootPath) {
+        Class<?> entityType = ((EntityPath<?>) rootPath).getType();
+        EntityPersister persister = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getRuntimeMetamodels().getMappingMetamodel().getEntityDescriptor(entityType);
+        return ((AbstractEntityPersister) persister).getTableName();
+    }
+
+    private record CachedCount(long value, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,14 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class CountResult {
+    private final long value;
+    private final boolean exact; // false 면 추정치이거나 캐시된 값
+    private final boolean lowerBound; // capped 로 잘렸으면 true, 실제 건수는 value 이상
+}
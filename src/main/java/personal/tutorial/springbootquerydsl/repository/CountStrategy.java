@@ -0,0 +1,53 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * 페이지 목록의 전체 건수를 얼마나 정확하게 셀지.
+ * <ul>
+ *     <li>exact: COUNT(*) 그대로</li>
+ *     <li>capped(n): n 건까지만 센다. 넘으면 "n 건 이상"</li>
+ *     <li>cached(ttl): 같은 조건의 정확한 count 를 ttl 동안 재사용</li>
+ *     <li>estimated: 조건이 없으면 DB 통계의 테이블 행 수, 조건이 있으면 capped 로 대신한다</li>
+ * </ul>
+ */
+@Getter
+public class CountStrategy {
+
+    public static final long DEFAULT_CAP = 10_000;
+
+    public enum Kind {
+        EXACT, CAPPED, CACHED, ESTIMATED
+    }
+
+    private final Kind kind;
+    private final long cap;
+    private final Duration ttl;
+
+    private CountStrategy(Kind kind, long cap, Duration ttl) {
+        this.kind = kind;
+        this.cap = cap;
+        this.ttl = ttl;
+    }
+
+    public static CountStrategy exact() {
+        return new CountStrategy(Kind.EXACT, 0, null);
+    }
+
+    public static CountStrategy capped(long cap) {
+        if (cap <= 0) {
+            throw new IllegalArgumentException("cap 은 1 이상이어야 합니다: " + cap);
+        }
+        return new CountStrategy(Kind.CAPPED, cap, null);
+    }
+
+    public static CountStrategy cached(Duration ttl) {
+        return new CountStrategy(Kind.CACHED, 0, ttl);
+    }
+
+    public static CountStrategy estimated() {
+        return new CountStrategy(Kind.ESTIMATED, DEFAULT_CAP, null);
+    }
+}
@@ -0,0 +1,21 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 키셋 페이징 결과. count 쿼리 없이 다음 페이지 존재 여부와 커서만 돌려준다.
+ */
+@Getter
+public class CursorPage<T> {
+    private final List<T> content;
+    private final String nextCursor; // 마지막 페이지면 null
+    private final boolean hasNext;
+
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+}
@@ -0,0 +1,62 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.dto.MemberSearchCondition;
+import personal.tutorial.springbootquerydsl.dto.MemberWithTeamView;
+import personal.tutorial.springbootquerydsl.dto.TeamWithMembersView;
+import personal.tutorial.springbootquerydsl.entity.Member;
+import personal.tutorial.springbootquerydsl.entity.Team;
+
+import java.util.List;
+
+/**
+ * Blaze Entity View 조회. 엔티티를 영속성 컨텍스트에 올리지 않고 뷰에 선언된 컬럼만 select 한다.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class EntityViewRepository {
+
+    private final EntityManager em;
+    private final CriteriaBuilderFactory criteriaBuilderFactory;
+    private final EntityViewManager entityViewManager;
+
+    // 둘 다 첫 조회 때 만들어지도록 지연 프록시로 받는다 (BlazePersistenceConfiguration)
+    public EntityViewRepository(EntityManager em, @Lazy CriteriaBuilderFactory criteriaBuilderFactory,
+                                @Lazy EntityViewManager entityViewManager) {
+        this.em = em;
+        this.criteriaBuilderFactory = criteriaBuilderFactory;
+        this.entityViewManager = entityViewManager;
+    }
+
+    public List<MemberWithTeamView> findMembers(MemberSearchCondition condition) {
+        MemberSearchCondition cond = MemberQueryRepository.normalize(condition);
+        CriteriaBuilder<Member> cb = criteriaBuilderFactory.create(em, Member.class);
+        if (cond.getUsername() != null) cb.where("username").eq(cond.getUsername());
+        if (cond.getTeamName() != null) cb.where("team.name").eq(cond.getTeamName());
+        if (cond.getAgeGoe() != null) cb.where("age").ge(cond.getAgeGoe());
+        if (cond.getAgeLoe() != null) cb.where("age").le(cond.getAgeLoe());
+        cb.orderByAsc("id");
+        return entityViewManager.applySetting(EntityViewSetting.create(MemberWithTeamView.class), cb).getResultList();
+    }
+
+    public TeamWithMembersView findTeamWithMembers(Long teamId) {
+        return entityViewManager.find(em, TeamWithMembersView.class, teamId);
+    }
+
+    /**
+     * 팀만 페이징하고 members 는 SUBSELECT 로 한 번에 채운다. 반환값의 getTotalSize() 로 전체 팀 수도 알 수 있다.
+     */
+    public PagedList<TeamWithMembersView> findTeamsWithMembers(int offset, int limit) {
+        CriteriaBuilder<Team> cb = criteriaBuilderFactory.create(em, Team.class).orderByAsc("id");
+        return entityViewManager.applySetting(EntityViewSetting.create(TeamWithMembersView.class, offset, limit), cb)
+                .getResultList();
+    }
+}
@@ -0,0 +1,48 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import lombok.Getter;
+import personal.tutorial.springbootquerydsl.entity.Member;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * (age desc, username asc nulls last, id asc) 정렬 기준의 마지막 위치.
+ * 클라이언트에는 Base64 URL 문자열로만 노출한다.
+ */
+@Getter
+public class MemberCursor {
+    private static final String SEPARATOR = "|";
+
+    private final int age;
+    private final String username;
+    private final Long id;
+
+    public MemberCursor(int age, String username, Long id) {
+        this.age = age;
+        this.username = username;
+        this.id = id;
+    }
+
+    public static MemberCursor of(Member member) {
+        return new MemberCursor(member.getAge(), member.getUsername(), member.getId());
+    }
+
+    public String encode() {
+        // username 에 구분자가 들어 있어도 되도록 맨 마지막에 둔다. null 은 "-", 값이 있으면 "+" 접두어
+        String name = username == null ? "-" : "+" + username;
+        String raw = age + SEPARATOR + id + SEPARATOR + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MemberCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            String username = parts[2].startsWith("+") ? parts[2].substring(1) : null;
+            return new MemberCursor(Integer.parseInt(parts[0]), username, Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + token, e);
+        }
+    }
+}
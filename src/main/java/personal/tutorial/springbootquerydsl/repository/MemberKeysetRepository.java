@@ -0,0 +1,63 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import com.blazebit.persistence.querydsl.BlazeJPAQueryFactory;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.entity.Member;
+
+import java.util.List;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+/**
+ * offset/limit + fetchResults() 대신 마지막 행의 정렬 키로 다음 페이지를 찾는다(seek 방식).
+ * offset 스캔과 count 쿼리가 없으므로 N 번째 페이지도 첫 페이지와 비용이 같다.
+ * 정렬은 idx_member_age_username_id (V3) 와 같은 순서여야 정렬 없이 인덱스를 따라 읽는다. 실행 계획은 QueryPlanTest 가 확인한다.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberKeysetRepository {
+
+    private final BlazeJPAQueryFactory blazeQueryFactory;
+
+    public CursorPage<Member> findPage(String cursor, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size 는 1 이상이어야 합니다: " + size);
+        }
+        MemberCursor after = cursor == null ? null : MemberCursor.decode(cursor);
+
+        // 한 건을 더 읽어서 다음 페이지 존재 여부를 판단한다 (count 쿼리 대신)
+        List<Member> rows = blazeQueryFactory
+                .selectFrom(member)
+                .where(seekAfter(after))
+                .orderBy(member.age.desc(), member.username.asc().nullsLast(), member.id.asc())
+                .limit(size + 1)
+                .fetch();
+
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Member> content = rows.subList(0, size);
+        return new CursorPage<>(content, MemberCursor.of(content.get(size - 1)).encode());
+    }
+
+    private BooleanExpression seekAfter(MemberCursor after) {
+        if (after == null) {
+            return null;
+        }
+        // OR 만으로는 인덱스 범위를 잡지 못하므로, 결과는 같지만 인덱스가 쓸 수 있는 age <= ? 를 앞에 둔다
+        BooleanExpression range = member.age.loe(after.getAge());
+        BooleanExpression younger = member.age.lt(after.getAge());
+        BooleanExpression sameAge = member.age.eq(after.getAge());
+        if (after.getUsername() == null) {
+            // nulls last 이므로 null 이름 뒤에는 같은 나이의 null 이름(id 큰 것)만 남는다
+            return range.and(younger.or(sameAge.and(member.username.isNull()).and(member.id.gt(after.getId()))));
+        }
+        return range.and(younger
+                .or(sameAge.and(member.username.gt(after.getUsername()).or(member.username.isNull())))
+                .or(sameAge.and(member.username.eq(after.getUsername())).and(member.id.gt(after.getId()))));
+    }
+}
@@ -0,0 +1,137 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import com.blazebit.persistence.querydsl.BlazeJPAQueryFactory;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import personal.tutorial.springbootquerydsl.dto.MemberSearchCondition;
+import personal.tutorial.springbootquerydsl.dto.MemberTeamDto;
+import personal.tutorial.springbootquerydsl.dto.QMemberTeamDto;
+
+import java.util.List;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+import static personal.tutorial.springbootquerydsl.entity.QTeam.team;
+
+/**
+ * 회원 검색 리포지토리.
+ * 모든 조회가 같은 where 파라미터를 같은 순서로 쓰므로, 조건 조합이 같으면 JPQL 문자열도 같아
+ * Hibernate query plan cache 와 JDBC statement cache 가 적중한다.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberQueryRepository {
+
+    private final JPAQueryFactory queryFactory;
+    private final BlazeJPAQueryFactory blazeQueryFactory;
+    private final PageQueryExecutor pageQueryExecutor;
+    private final CountExecutor countExecutor;
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return searchQuery(condition).fetch();
+    }
+
+    /**
+     * 조건이 없는 필드는 where 에서 빠지므로 조건 조합이 같으면 JPQL 도 같다.
+     */
+    JPAQuery<MemberTeamDto> searchQuery(MemberSearchCondition condition) {
+        return queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(where(condition))
+                .orderBy(member.id.asc());
+    }
+
+    /**
+     * 페이지 내용과 count 를 동시에 조회한다. 마지막 페이지면 count 를 기다리지 않는다.
+     * 조회는 각자 트랜잭션을 여므로 여기서는 커넥션을 잡지 않는다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        return pageQueryExecutor.fetchPage(pageable,
+                () -> queryFactory
+                        .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                        .from(member)
+                        .leftJoin(member.team, team)
+                        .where(where(condition))
+                        .orderBy(member.id.asc())
+                        .offset(pageable.getOffset())
+                        .limit(pageable.getPageSize())
+                        .fetch(),
+                () -> queryFactory
+                        .select(member.count())
+                        .from(member)
+                        .leftJoin(member.team, team)
+                        .where(where(condition))
+                        .fetchOne());
+    }
+
+    /**
+     * 검색 조건의 전체 건수. 목록 화면에서 정확한 건수가 꼭 필요하지 않으면 capped/cached/estimated 를 쓴다.
+     */
+    public CountResult countMembers(MemberSearchCondition condition, CountStrategy strategy) {
+        return countExecutor.count(blazeQueryFactory
+                .select(member.id)
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(where(condition)), strategy);
+    }
+
+    /**
+     * QueryDSL 을 쓰지 않는 곳(Blaze 엔티티 뷰 등)에서 쓰는 정리된 조건. 공백뿐인 문자열은 조건 없음이 된다.
+     */
+    static MemberSearchCondition normalize(MemberSearchCondition condition) {
+        MemberSearchCondition cond = new MemberSearchCondition();
+        if (condition == null) {
+            return cond;
+        }
+        cond.setUsername(trimToNull(condition.getUsername()));
+        cond.setTeamName(trimToNull(condition.getTeamName()));
+        cond.setAgeGoe(condition.getAgeGoe());
+        cond.setAgeLoe(condition.getAgeLoe());
+        return cond;
+    }
+
+    private static Predicate[] where(MemberSearchCondition condition) {
+        if (condition == null) {
+            return new Predicate[0];
+        }
+        return new Predicate[]{usernameEq(condition.getUsername()), teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()), ageLoe(condition.getAgeLoe())};
+    }
+
+    private static String trimToNull(String value) {
+        return StringUtils.hasText(value) ? value.trim() : null;
+    }
+
+    /* ======= QueryDSL 쿼리에서 같은 조건을 재사용할 때 쓰는 where 파라미터 ======== */
+    // team 은 member.team 과 조인되어 있어야 한다.
+
+    public static BooleanExpression usernameEq(String username) {
+        String value = trimToNull(username);
+        return value != null ? member.username.eq(value) : null;
+    }
+
+    public static BooleanExpression teamNameEq(String teamName) {
+        String value = trimToNull(teamName);
+        return value != null ? team.name.eq(value) : null;
+    }
+
+    public static BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    }
+
+    public static BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    }
+}
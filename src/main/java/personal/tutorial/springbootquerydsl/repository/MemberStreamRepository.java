@@ -0,0 +1,51 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.dto.MemberDto;
+import personal.tutorial.springbootquerydsl.dto.QMemberDto;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+/**
+ * 전체 회원 리포트처럼 결과가 큰 조회용.
+ * 엔티티가 아닌 DTO 로 projection 하므로 영속성 컨텍스트에 아무것도 쌓이지 않고, 힙 사용량이 행 수와 무관하게 일정하다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MemberStreamRepository {
+
+    private final JPAQueryFactory queryFactory;
+
+    /**
+     * 호출자가 읽기 전용 트랜잭션 안에서 try-with-resources 로 닫아야 한다.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<MemberDto> streamMemberDtos(int fetchSize) {
+        return QueryStreams.stream(queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .orderBy(member.id.asc()), fetchSize);
+    }
+
+    /**
+     * 커서 열기/닫기를 이 메서드 안에서 끝낸다. 처리한 행 수를 돌려준다.
+     */
+    @Transactional(readOnly = true)
+    public long forEachMemberDto(int fetchSize, Consumer<MemberDto> consumer) {
+        long count = 0;
+        try (Stream<MemberDto> stream = streamMemberDtos(fetchSize)) {
+            for (MemberDto dto : (Iterable<MemberDto>) stream::iterator) {
+                consumer.accept(dto);
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,88 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import com.blazebit.persistence.querydsl.BlazeJPAQueryFactory;
+import com.blazebit.persistence.querydsl.JPQLNextExpressions;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.dto.MemberDto;
+import personal.tutorial.springbootquerydsl.dto.QMemberDto;
+import personal.tutorial.springbootquerydsl.dto.UserDto;
+
+import java.util.List;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+import static personal.tutorial.springbootquerydsl.entity.QMemberAgeCte.memberAgeCte;
+
+/**
+ * JPAExpressions 서브쿼리(max/avg 나이) 대신 윈도우 함수로 member 를 한 번만 읽는 조회 모음.
+ * 윈도우 함수는 WHERE 에 바로 쓸 수 없으므로, 필터가 필요한 경우는 {@link personal.tutorial.springbootquerydsl.entity.MemberAgeCte} 로 감싼다.
+ * <pre>
+ * with MemberAgeCte as (select m.id, m.username, m.age, max(m.age) over (), ... from member m)
+ * select ... from MemberAgeCte c where c.age = c.maxAge
+ * </pre>
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberWindowQueryRepository {
+
+    private final BlazeJPAQueryFactory blazeQueryFactory;
+
+    /**
+     * subQuery 테스트: 나이가 가장 많은 회원
+     */
+    public List<MemberDto> findOldestMembers() {
+        return fromMemberAgeCte(memberAgeCte.age.eq(memberAgeCte.maxAge));
+    }
+
+    /**
+     * subQueryGoe 테스트: 나이가 평균 이상인 회원
+     */
+    public List<MemberDto> findMembersAtLeastAverageAge() {
+        return fromMemberAgeCte(memberAgeCte.age.castToNum(Double.class).goe(memberAgeCte.avgAge));
+    }
+
+    /**
+     * 팀별 최고령 회원. 서브쿼리로 쓰면 바깥 행마다 같은 팀을 다시 읽는 상관 서브쿼리가 된다.
+     */
+    public List<MemberDto> findOldestMembersPerTeam() {
+        return fromMemberAgeCte(memberAgeCte.teamId.isNotNull().and(memberAgeCte.age.eq(memberAgeCte.teamMaxAge)));
+    }
+
+    /**
+     * findUserDtoBlazePersistence 테스트: 이름과 전체 최대 나이. 필터가 없으므로 CTE 없이 select 절에 바로 쓴다.
+     */
+    public List<UserDto> findUserDtosWithMaxAge() {
+        return blazeQueryFactory
+                .select(Projections.fields(UserDto.class,
+                        member.username.as("name"),
+                        JPQLNextExpressions.max(member.age).over().as("age")))
+                .from(member)
+                .orderBy(member.id.asc())
+                .fetch();
+    }
+
+    private List<MemberDto> fromMemberAgeCte(BooleanExpression where) {
+        return blazeQueryFactory
+                .with(memberAgeCte, JPQLNextExpressions
+                        .select(JPQLNextExpressions.bind(memberAgeCte.id, member.id),
+                                JPQLNextExpressions.bind(memberAgeCte.username, member.username),
+                                JPQLNextExpressions.bind(memberAgeCte.age, member.age),
+                                JPQLNextExpressions.bind(memberAgeCte.teamId, member.team.id),
+                                JPQLNextExpressions.bind(memberAgeCte.maxAge,
+                                        JPQLNextExpressions.max(member.age).over()),
+                                JPQLNextExpressions.bind(memberAgeCte.avgAge,
+                                        JPQLNextExpressions.avg(member.age.castToNum(Double.class)).over()),
+                                JPQLNextExpressions.bind(memberAgeCte.teamMaxAge,
+                                        JPQLNextExpressions.max(member.age).over().partitionBy(member.team.id)))
+                        .from(member))
+                .select(new QMemberDto(memberAgeCte.username, memberAgeCte.age))
+                .from(memberAgeCte)
+                .where(where)
+                .orderBy(memberAgeCte.id.asc())
+                .fetch();
+    }
+}
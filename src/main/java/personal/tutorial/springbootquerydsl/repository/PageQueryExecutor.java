@@ -0,0 +1,138 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 페이지 내용 조회와 count 조회를 동시에 실행한다. 각 조회는 자기 커넥션과 읽기 전용 트랜잭션을 쓰므로,
+ * 호출자 트랜잭션에서 아직 커밋하지 않은 변경은 보이지 않는다.
+ * <ul>
+ *     <li>응답 시간은 두 쿼리의 합이 아니라 더 느린 쪽이다</li>
+ *     <li>마지막 페이지(내용이 한 페이지를 못 채움)면 전체 건수는 offset + 내용 수이므로, 실행 중인 count 는
+ *     Session.cancelQuery(JDBC Statement.cancel)로 취소하고 기다리지 않는다</li>
+ *     <li>count 는 page-query.count-timeout 을 넘으면 DB 에서 끊긴다. 취소 신호가 statement 가 만들어지기 직전에 오면
+ *     취소가 빗나갈 수 있는데, 그때도 이 타임아웃 안에서 끝난다</li>
+ * </ul>
+ * 스레드는 Spring 의 applicationTaskExecutor 를 쓴다 (spring.task.execution.pool, virtual 프로파일이면 가상 스레드).
+ */
+@Component
+public class PageQueryExecutor {
+
+    private final EntityManager em;
+    private final TransactionTemplate readOnly;
+    private final TransactionTemplate countReadOnly;
+    private final AsyncTaskExecutor executor;
+
+    public PageQueryExecutor(EntityManager em, PlatformTransactionManager transactionManager,
+                             @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                             AsyncTaskExecutor executor,
+                             @Value("${page-query.count-timeout:30s}") Duration countTimeout) {
+        this.em = em;
+        this.readOnly = readOnlyTemplate(transactionManager);
+        this.countReadOnly = readOnlyTemplate(transactionManager);
+        this.countReadOnly.setTimeout((int) Math.max(1, countTimeout.toSeconds())); //트랜잭션 안에서 만든 쿼리에 query timeout 으로 걸린다
+        this.executor = executor;
+    }
+
+    public <T> Page<T> fetchPage(Pageable pageable, Supplier<List<T>> contentQuery, LongSupplier countQuery) {
+        CountQuery count = new CountQuery(countQuery);
+        CompletableFuture<List<T>> content = CompletableFuture.supplyAsync(
+                () -> readOnly.execute(status -> contentQuery.get()), executor);
+        CompletableFuture<Long> total = CompletableFuture.supplyAsync(
+                () -> countReadOnly.execute(status -> count.run()), executor);
+
+        List<T> rows;
+        try {
+            rows = join(content);
+        } catch (RuntimeException e) {
+            count.cancel();
+            throw e;
+        }
+        if (isLastPage(pageable, rows)) {
+            count.cancel();
+            return new PageImpl<>(rows, pageable, pageable.getOffset() + rows.size());
+        }
+        return new PageImpl<>(rows, pageable, join(total));
+    }
+
+    private static TransactionTemplate readOnlyTemplate(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private static boolean isLastPage(Pageable pageable, List<?> rows) {
+        if (rows.size() >= pageable.getPageSize()) {
+            return false;
+        }
+        return !rows.isEmpty() || pageable.getOffset() == 0; // offset 을 넘어선 빈 페이지는 전체 건수를 알 수 없다
+    }
+
+    private static <R> R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * count 를 실행하는 스레드의 Session 을 잡아 두었다가, 다른 스레드에서 cancel() 하면 실행 중인 statement 를 취소한다.
+     */
+    private final class CountQuery {
+
+        private final LongSupplier query;
+        private boolean cancelled;
+        private Session session;
+
+        CountQuery(LongSupplier query) {
+            this.query = query;
+        }
+
+        long run() {
+            synchronized (this) {
+                if (cancelled) {
+                    throw new CancellationException("count 가 필요 없어졌습니다");
+                }
+                session = em.unwrap(Session.class); //count 트랜잭션에 묶인 세션
+            }
+            try {
+                return query.getAsLong();
+            } finally {
+                synchronized (this) {
+                    session = null;
+                }
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (session != null) {
+                session.cancelQuery();
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import com.blazebit.persistence.querydsl.BlazeJPAQuery;
+import com.querydsl.core.types.Expression;
+import com.querydsl.jpa.impl.AbstractJPAQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.stream.Stream;
+
+/**
+ * fetch() 처럼 결과 List 를 만들지 않고 JDBC 커서에서 한 행씩 읽어오는 스트림.
+ * 반환된 Stream 은 커서와 커넥션 자원을 잡고 있으므로 반드시 try-with-resources 로 닫고,
+ * 트랜잭션 안에서만 사용한다.
+ * <p>
+ * 엔티티는 read-only 로 읽어도 스트림이 끝날 때까지 영속성 컨텍스트에 남아 힙이 행 수만큼 커지므로,
+ * ReadOnlyQueries 처럼 DTO/스칼라 projection 만 받는다. 엔티티를 select 하면 IllegalArgumentException.
+ */
+public final class QueryStreams {
+
+    public static final int DEFAULT_FETCH_SIZE = 1_000;
+
+    private QueryStreams() {
+    }
+
+    public static <T> Stream<T> stream(AbstractJPAQuery<T, ?> query) {
+        return stream(query, DEFAULT_FETCH_SIZE);
+    }
+
+    public static <T> Stream<T> stream(AbstractJPAQuery<T, ?> query, int fetchSize) {
+        return cursor(query, fetchSize);
+    }
+
+    public static <T> Stream<T> stream(BlazeJPAQuery<T> query) {
+        return stream(query, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * CTE, window 함수 등 Blaze 로 만든 쿼리. Blaze 가 만든 JPA Query 에도 같은 힌트가 걸린다.
+     */
+    public static <T> Stream<T> stream(BlazeJPAQuery<T> query, int fetchSize) {
+        return cursor(query, fetchSize);
+    }
+
+    private static <T> Stream<T> cursor(AbstractJPAQuery<T, ?> query, int fetchSize) {
+        Expression<?> projection = query.getMetadata().getProjection();
+        if (projection == null) {
+            throw new IllegalArgumentException("select 가 없으면 from 의 엔티티를 조회합니다. DTO 로 projection 하세요.");
+        }
+        ReadOnlyQueries.rejectEntities(projection);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize); //한 번에 드라이버가 가져오는 행 수
+        query.setHint(HibernateHints.HINT_CACHEABLE, false); //결과를 쿼리 캐시에 모으지 않는다
+        return query.stream();
+    }
+}
@@ -0,0 +1,94 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAUtil;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * DTO 만 조회하는 읽기 전용 쿼리 창구.
+ * 쿼리는 현재 트랜잭션의 커넥션 위에 연 StatelessSession 에서 실행하므로 영속성 컨텍스트(1차 캐시, 스냅샷)를 거치지 않는다.
+ * 엔티티를 그대로 select 하면 IllegalArgumentException. 엔티티가 필요하면 JPAQueryFactory 를 쓴다.
+ *
+ * <pre>
+ * readOnlyQueries.fetch(new QMemberDto(member.username, member.age),
+ *         q -> q.from(member).where(member.age.goe(20)));
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ReadOnlyQueries {
+
+    private final EntityManager em;
+
+    public <T> List<T> fetch(Expression<T> projection, UnaryOperator<JPAQuery<T>> query) {
+        rejectEntities(projection);
+        QueryMetadata metadata = query.apply(new JPAQuery<T>().select(projection)).getMetadata();
+
+        // 같은 커넥션을 쓰므로 트랜잭션 안에서 flush 된 변경은 보인다
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (StatelessSession session = em.getEntityManagerFactory().unwrap(SessionFactory.class)
+                    .withStatelessOptions()
+                    .connection(connection)
+                    .openStatelessSession()) {
+                return execute(session, metadata, projection);
+            }
+        });
+    }
+
+    public <T> T fetchOne(Expression<T> projection, UnaryOperator<JPAQuery<T>> query) {
+        List<T> result = fetch(projection, q -> query.apply(q).limit(2));
+        if (result.size() > 1) {
+            throw new IllegalStateException("결과가 2건 이상입니다: " + projection);
+        }
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> execute(StatelessSession session, QueryMetadata metadata, Expression<T> projection) {
+        JPQLSerializer serializer = new JPQLSerializer(HQLTemplates.DEFAULT, em);
+        serializer.serialize(metadata, false, null);
+
+        Query<Object> query = session.createQuery(serializer.toString(), Object.class);
+        JPAUtil.setConstants(query, serializer.getConstantToLabel(), metadata.getParams());
+        QueryModifiers modifiers = metadata.getModifiers();
+        if (modifiers.getOffset() != null) query.setFirstResult(modifiers.getOffsetAsInteger());
+        if (modifiers.getLimit() != null) query.setMaxResults(modifiers.getLimitAsInteger());
+
+        List<Object> rows = query.getResultList();
+        if (!(projection instanceof FactoryExpression<T> factory)) {
+            return (List<T>) rows;
+        }
+        // JPAQuery 와 같은 방식으로 행(Object[] 또는 단일 값)을 DTO 로 만든다
+        return rows.stream()
+                .map(row -> factory.newInstance(row instanceof Object[] values ? values : new Object[]{row}))
+                .toList();
+    }
+
+    static void rejectEntities(Expression<?> projection) {
+        if (projection instanceof EntityPath<?> || projection.getType().isAnnotationPresent(Entity.class)) {
+            throw new IllegalArgumentException("엔티티는 조회할 수 없습니다. DTO 로 projection 하세요: " + projection);
+        }
+        if (projection instanceof FactoryExpression<?> factory) {
+            factory.getArgs().forEach(ReadOnlyQueries::rejectEntities);
+        }
+    }
+}
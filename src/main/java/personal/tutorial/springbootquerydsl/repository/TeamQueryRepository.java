@@ -0,0 +1,98 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.entity.Member;
+import personal.tutorial.springbootquerydsl.entity.Team;
+
+import java.util.List;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+import static personal.tutorial.springbootquerydsl.entity.QTeam.team;
+
+/**
+ * 팀-회원 연관관계를 N+1 없이 가져오는 조회 모음.
+ * XToOne(Member.team) 은 행이 늘어나지 않으므로 항상 페치 조인,
+ * OneToMany(Team.members) 는 결과 행 수를 보고 페치 조인과 배치 로딩(@BatchSize, IN 절) 중에 고른다.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TeamQueryRepository {
+
+    // 이보다 (팀 x 회원) 행이 많으면 컬렉션 페치 조인 대신 배치 로딩으로 가져온다
+    static final long FETCH_JOIN_MAX_ROWS = 1_000;
+
+    private final JPAQueryFactory queryFactory;
+
+    static final String QUERY_CACHE_REGION = "team-query";
+
+    /**
+     * 회원 조회마다 붙는 팀 이름 조회는 쿼리 캐시에 둔다. team 테이블이 바뀌면 Hibernate 가 알아서 무효화한다.
+     */
+    public Team findByName(String name) {
+        return queryFactory
+                .selectFrom(team)
+                .where(team.name.eq(name))
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
+                .fetchFirst();
+    }
+
+    public List<Member> findMembersWithTeam() {
+        return queryFactory
+                .selectFrom(member)
+                .leftJoin(member.team, team).fetchJoin()
+                .orderBy(member.id.asc())
+                .fetch();
+    }
+
+    /**
+     * 전체 팀과 회원. 조인 결과가 작으면 한 번의 페치 조인, 크면 팀 조회 + members 배치 로딩.
+     */
+    public List<Team> findTeamsWithMembers() {
+        long joinedRows = queryFactory
+                .select(member.count())
+                .from(member)
+                .where(member.team.isNotNull())
+                .fetchOne();
+
+        if (joinedRows <= FETCH_JOIN_MAX_ROWS) {
+            return queryFactory
+                    .selectFrom(team).distinct()
+                    .leftJoin(team.members, member).fetchJoin()
+                    .orderBy(team.id.asc())
+                    .fetch();
+        }
+        return initializeMembers(queryFactory
+                .selectFrom(team)
+                .orderBy(team.id.asc())
+                .fetch());
+    }
+
+    /**
+     * 컬렉션 페치 조인에 페이징을 걸면 Hibernate 가 전체를 메모리에 올려 페이징한다(HHH90003004).
+     * 그래서 팀만 페이징해서 가져오고, members 는 배치 로딩으로 채운다.
+     */
+    public List<Team> findTeamsWithMembers(long offset, long limit) {
+        List<Team> teams = queryFactory
+                .selectFrom(team)
+                .orderBy(team.id.asc())
+                .offset(offset)
+                .limit(limit)
+                .fetch();
+        return initializeMembers(teams);
+    }
+
+    private List<Team> initializeMembers(List<Team> teams) {
+        // 첫 번째 초기화 때 @BatchSize 만큼의 팀 members 가 IN 절 한 번으로 같이 로딩된다
+        for (Team t : teams) {
+            Hibernate.initialize(t.getMembers());
+        }
+        return teams;
+    }
+}
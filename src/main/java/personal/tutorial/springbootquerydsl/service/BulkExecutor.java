@@ -0,0 +1,227 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import personal.tutorial.springbootquerydsl.dto.BulkResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * QueryDSL update/delete 를 id 구간(청크) 단위로 나눠 실행한다.
+ * <p>
+ * 한 번에 전체를 update 하면 락을 오래 잡고, 영속성 컨텍스트에는 옛 값이 남는다(bulkUpdate 테스트의 flush/clear 참고).
+ * 여기서는 대상 id 를 chunkSize 만큼씩 잘라 청크마다 트랜잭션을 커밋하고,
+ * 영속성 컨텍스트에 올라와 있던 대상 엔티티만 evict/refresh 한다.
+ * 호출자 트랜잭션이 있으면 그 트랜잭션에 참여하므로 청크별 커밋과 병렬 실행은 일어나지 않고 경고를 남긴다.
+ * 청크별로 커밋하려면 트랜잭션 밖(@Transactional 이 없는 서비스 메서드, 배치 잡 등)에서 호출해야 한다.
+ * <p>
+ * 병렬 실행은 applicationTaskExecutor 를 쓰고, 동시에 넘기는 청크는 parallelism 개까지다. 한 청크라도 실패하면
+ * 다음 id 구간을 더 읽지 않는다. 끝나면 BulkOperationEvent 를 발행하는데, 호출자 트랜잭션 안이면 리스너는
+ * 커밋 뒤에 받는다 (@TransactionalEventListener).
+ */
+@Slf4j
+@Service
+public class BulkExecutor {
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AsyncTaskExecutor executor;
+
+    public BulkExecutor(EntityManager em, JPAQueryFactory queryFactory, PlatformTransactionManager transactionManager,
+                        ApplicationEventPublisher eventPublisher,
+                        @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                        AsyncTaskExecutor executor) {
+        this.em = em;
+        this.queryFactory = queryFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+    }
+
+    public BulkResult update(EntityPath<?> entity, NumberPath<Long> id, Predicate where,
+                             Consumer<JPAUpdateClause> setter, BulkOptions options) {
+        return run(entity, id, where, options, false, chunkWhere -> {
+            JPAUpdateClause clause = queryFactory.update(entity).where(chunkWhere);
+            setter.accept(clause);
+            return clause.execute();
+        });
+    }
+
+    public BulkResult delete(EntityPath<?> entity, NumberPath<Long> id, Predicate where, BulkOptions options) {
+        return run(entity, id, where, options, true,
+                chunkWhere -> queryFactory.delete(entity).where(chunkWhere).execute());
+    }
+
+    private BulkResult run(EntityPath<?> entity, NumberPath<Long> id, Predicate where, BulkOptions options,
+                           boolean delete, ChunkStatement statement) {
+        long start = System.nanoTime();
+        AtomicLong affected = new AtomicLong();
+        AtomicLong chunks = new AtomicLong();
+        int parallelism = options.getParallelism();
+        boolean parallel = parallelism > 1;
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // 호출자의 영속성 컨텍스트와 한 트랜잭션으로 묶이길 원하는 경우도 있으므로 막지는 않는다
+            log.warn("호출자 트랜잭션 안에서 실행되어 청크별 커밋{} 없이 한 트랜잭션으로 처리됩니다. {} {}",
+                    parallel ? "과 병렬 실행" : "", delete ? "delete" : "update", entity.getType().getSimpleName());
+            parallel = false;
+        }
+
+        // 실행 중이거나 대기 중인 청크는 parallelism 개까지만. 자리가 날 때까지 다음 id 구간을 읽지 않는다
+        Semaphore inFlight = new Semaphore(parallelism);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<IdRange> ranges = new ArrayList<>();
+        try {
+            Long lastId = null;
+            while (failure.get() == null) {
+                List<Long> ids = nextIds(id, entity, where, lastId, options.getChunkSize());
+                if (ids.isEmpty()) {
+                    break;
+                }
+                lastId = ids.get(ids.size() - 1);
+                IdRange range = new IdRange(ids.get(0), lastId);
+                ranges.add(range);
+                Runnable chunk = () -> {
+                    // 구간 사이에 새로 조건을 만족하게 된 행도 같이 처리되도록 id 목록이 아닌 구간으로 건다
+                    long count = transactionTemplate.execute(
+                            status -> statement.execute(id.between(range.first(), range.last()).and(where)));
+                    options.getProgressListener().accept(new BulkResult(
+                            affected.addAndGet(count), chunks.incrementAndGet(), elapsedMillis(start)));
+                };
+                if (parallel) {
+                    submit(chunk, inFlight, failure);
+                } else {
+                    chunk.run();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } finally {
+            // 이미 넘긴 청크는 끝까지 기다린 뒤에 맞추고 알린다
+            inFlight.acquireUninterruptibly(parallelism);
+            // 실패해도 앞선 청크는 반영되었을 수 있으므로 항상 맞추고 알린다
+            synchronize(entity.getType(), ranges, delete, options.getSyncMode());
+            eventPublisher.publishEvent(new BulkOperationEvent(entity.getType(), affected.get()));
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("벌크 연산이 중단되었습니다.", failure.get());
+        }
+
+        BulkResult result = new BulkResult(affected.get(), chunks.get(), elapsedMillis(start));
+        log.info("bulk {} {} done: {}, rows/sec={}", delete ? "delete" : "update", entity.getType().getSimpleName(),
+                result, String.format("%.1f", result.getRowsPerSecond()));
+        return result;
+    }
+
+    private void submit(Runnable chunk, Semaphore inFlight, AtomicReference<Throwable> failure)
+            throws InterruptedException {
+        inFlight.acquire();
+        try {
+            executor.execute(() -> {
+                try {
+                    if (failure.get() == null) {
+                        chunk.run();
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private List<Long> nextIds(NumberPath<Long> id, EntityPath<?> entity, Predicate where, Long lastId, int chunkSize) {
+        return queryFactory
+                .select(id)
+                .from(entity)
+                .where(where, lastId == null ? null : id.gt(lastId))
+                .orderBy(id.asc())
+                .limit(chunkSize)
+                .fetch();
+    }
+
+    /**
+     * 벌크 쿼리는 영속성 컨텍스트를 거치지 않으므로, 호출자의 영속성 컨텍스트(트랜잭션 또는 open-in-view)에
+     * 이미 올라와 있던 대상 구간의 엔티티만 골라서 맞춰준다. 청크가 다른 스레드에서 실행되어도 호출 스레드에서 한다.
+     * 올라와 있지 않은 엔티티는 새로 조회하지 않는다.
+     */
+    private void synchronize(Class<?> entityType, List<IdRange> ranges, boolean delete, BulkOptions.SyncMode syncMode) {
+        EntityManager callerEm = EntityManagerFactoryUtils.getTransactionalEntityManager(em.getEntityManagerFactory());
+        if (callerEm == null || ranges.isEmpty()) {
+            return;
+        }
+        SessionImplementor session = callerEm.unwrap(SessionImplementor.class);
+        for (Map.Entry<Object, EntityEntry> entry : session.getPersistenceContextInternal().reentrantSafeEntityEntries()) {
+            Object managed = entry.getKey();
+            if (!entityType.isInstance(managed) || !(entry.getValue().getId() instanceof Long entityId)
+                    || !IdRange.contains(ranges, entityId)) {
+                continue;
+            }
+            if (delete || syncMode == BulkOptions.SyncMode.EVICT) {
+                callerEm.detach(managed);
+            } else {
+                callerEm.refresh(managed);
+            }
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * 청크 하나가 처리한 id 구간. keyset 으로 읽으므로 목록은 first 오름차순이다.
+     */
+    private record IdRange(long first, long last) {
+
+        static boolean contains(List<IdRange> ranges, long id) {
+            int low = 0;
+            int high = ranges.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                IdRange range = ranges.get(mid);
+                if (id < range.first()) {
+                    high = mid - 1;
+                } else if (id > range.last()) {
+                    low = mid + 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkStatement {
+        long execute(Predicate chunkWhere);
+    }
+}
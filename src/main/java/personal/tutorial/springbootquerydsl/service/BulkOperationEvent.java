@@ -0,0 +1,17 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import lombok.Getter;
+
+/**
+ * 벌크 update/delete 는 엔티티 이벤트를 거치지 않으므로, 끝난 뒤 이 이벤트로 알린다.
+ */
+@Getter
+public class BulkOperationEvent {
+    private final Class<?> entityType;
+    private final long affectedRows;
+
+    public BulkOperationEvent(Class<?> entityType, long affectedRows) {
+        this.entityType = entityType;
+        this.affectedRows = affectedRows;
+    }
+}
@@ -0,0 +1,39 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import lombok.Builder;
+import lombok.Getter;
+import personal.tutorial.springbootquerydsl.dto.BulkResult;
+
+import java.util.function.Consumer;
+
+/**
+ * 청크 단위 벌크 연산 설정.
+ */
+@Getter
+@Builder
+public class BulkOptions {
+
+    @Builder.Default
+    private final int chunkSize = 1_000;
+
+    // 1 보다 크면 청크를 applicationTaskExecutor 에서 각자의 트랜잭션으로, 동시에 최대 이 개수만큼 실행한다. 호출자 트랜잭션 안에서는 무시된다.
+    @Builder.Default
+    private final int parallelism = 1;
+
+    // 업데이트 후 영속성 컨텍스트에 있던 대상 엔티티를 다시 읽을지(refresh), 떼어낼지(evict)
+    @Builder.Default
+    private final SyncMode syncMode = SyncMode.EVICT;
+
+    // 청크가 끝날 때마다 누적 결과를 넘겨준다
+    @Builder.Default
+    private final Consumer<BulkResult> progressListener = progress -> {
+    };
+
+    public enum SyncMode {
+        EVICT, REFRESH
+    }
+
+    public static BulkOptions defaults() {
+        return BulkOptions.builder().build();
+    }
+}
@@ -0,0 +1,8 @@
+package personal.tutorial.springbootquerydsl.service;
+
+/**
+ * 커밋된 엔티티 변경 종류
+ */
+public enum ChangeType {
+    INSERT, UPDATE, DELETE
+}
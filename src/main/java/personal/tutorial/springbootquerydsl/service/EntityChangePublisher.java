@@ -0,0 +1,189 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import personal.tutorial.springbootquerydsl.entity.Member;
+import personal.tutorial.springbootquerydsl.entity.Team;
+import personal.tutorial.springbootquerydsl.service.MemberChangeEvent.MemberState;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hibernate post-commit insert/update/delete 를 받아 {@link MemberChangeEvent}, {@link TeamChangeEvent} 로 발행한다.
+ * 메모리 인덱스(TeamStatistics, UsernameIndex, FullTextIndex)는 Hibernate 리스너를 직접 등록하지 않고 이 이벤트를 구독한다.
+ * 이벤트는 커밋한 스레드에서 동기로 전달된다.
+ * <p>
+ * 커밋과 이벤트 전달 사이에는 틈이 있어서, 그 사이에 DB 를 읽은 쪽은 이벤트보다 먼저 그 변경을 볼 수 있다.
+ * 그래서 Member 변경은 flush 될 때 순번을 매겨 이벤트에 싣는다. 읽기를 마친 뒤 {@link #currentFlushSequence()} 보다
+ * 순번이 큰 변경은 그 읽기에 들어갔을 수 없다.
+ */
+@Component
+@Lazy(false) //fast 프로파일(lazy-initialization)에서도 기동 때 등록해야 커밋을 놓치지 않는다
+@RequiredArgsConstructor
+public class EntityChangePublisher implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory emf;
+    private final ApplicationEventPublisher publisher;
+
+    private final AtomicLong flushSequence = new AtomicLong();
+    // flush 때의 state 배열 -> 순번. post-commit 이벤트도 같은 배열을 넘겨주므로 배열 자체(identity)가 키다.
+    // 커밋되지 않고 버려진 배열은 GC 되면 빠진다
+    private final Map<Object[], Long> flushedAt = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @PostConstruct
+    void registerListeners() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        FlushListener flushListener = new FlushListener();
+        registry.appendListeners(EventType.POST_INSERT, flushListener);
+        registry.appendListeners(EventType.POST_UPDATE, flushListener);
+        registry.appendListeners(EventType.POST_DELETE, flushListener);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * 지금까지 flush 된 Member 변경의 마지막 순번. DB 를 다 읽은 뒤에 가져와야 한다.
+     */
+    public long currentFlushSequence() {
+        return flushSequence.get();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(ChangeType.INSERT, event.getEntity(), event.getPersister(), event.getId(), null, event.getState(),
+                event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(ChangeType.UPDATE, event.getEntity(), event.getPersister(), event.getId(),
+                event.getOldState(), event.getState(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(ChangeType.DELETE, event.getEntity(), event.getPersister(), event.getId(),
+                event.getDeletedState(), null, event.getDeletedState());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        forget(event.getState());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        forget(event.getState());
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        forget(event.getDeletedState());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Member.class || persister.getMappedClass() == Team.class;
+    }
+
+    private void publish(ChangeType type, Object entity, EntityPersister persister, Object id,
+                         Object[] before, Object[] after, Object[] flushedState) {
+        if (entity instanceof Member) {
+            Long sequence = forget(flushedState);
+            publisher.publishEvent(new MemberChangeEvent(type, (Long) id,
+                    memberState(persister, before), memberState(persister, after), sequence != null ? sequence : 0));
+        } else if (entity instanceof Team) {
+            String name = after == null ? null : (String) after[propertyIndex(persister, "name")];
+            publisher.publishEvent(new TeamChangeEvent(type, (Long) id, name));
+        }
+    }
+
+    private void stamp(Object entity, Object[] state) {
+        if (entity instanceof Member && state != null) {
+            flushedAt.put(state, flushSequence.incrementAndGet());
+        }
+    }
+
+    private Long forget(Object[] state) {
+        return state == null ? null : flushedAt.remove(state);
+    }
+
+    private static MemberState memberState(EntityPersister persister, Object[] state) {
+        if (state == null) {
+            return null;
+        }
+        return new MemberState((String) state[propertyIndex(persister, "username")],
+                (Integer) state[propertyIndex(persister, "age")],
+                teamIdOf(state[propertyIndex(persister, "team")]));
+    }
+
+    private static int propertyIndex(EntityPersister persister, String property) {
+        String[] names = persister.getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(property)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException(persister.getEntityName() + " 에 " + property + " 속성이 없습니다.");
+    }
+
+    private static Long teamIdOf(Object team) {
+        if (team == null) {
+            return null;
+        }
+        if (team instanceof HibernateProxy proxy) {
+            return (Long) proxy.getHibernateLazyInitializer().getIdentifier(); //프록시 초기화 없이 id 만 꺼낸다
+        }
+        return ((Team) team).getId();
+    }
+
+    /**
+     * 커밋 전, SQL 을 실행한 직후(flush)에 불린다. 순번만 매긴다.
+     */
+    private class FlushListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            stamp(event.getEntity(), event.getState());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            stamp(event.getEntity(), event.getState());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            stamp(event.getEntity(), event.getDeletedState());
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+}
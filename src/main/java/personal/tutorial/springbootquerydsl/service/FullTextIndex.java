@@ -0,0 +1,251 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+import personal.tutorial.springbootquerydsl.entity.Member;
+import personal.tutorial.springbootquerydsl.entity.Team;
+import personal.tutorial.springbootquerydsl.repository.QueryStreams;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+import static personal.tutorial.springbootquerydsl.entity.QTeam.team;
+
+/**
+ * Member.username, Team.name 의 Lucene 전문 검색 인덱스.
+ * 문서는 (종류, id, 이름) 뿐이고 결과는 BM25 점수 순 id 목록이다. 값은 DB 에서 id 로 다시 읽는다.
+ * <p>
+ * 커밋된 {@link MemberChangeEvent}, {@link TeamChangeEvent} 로 문서를 고치고, 벌크 연산 뒤에는 다음 검색 때 {@link #reindex()} 로 전부 다시 만든다.
+ * 이벤트로 고친 내용은 바로 검색에 보이지만(NRT) 디스크에는 reindex 나 종료 때 커밋된다.
+ */
+@Slf4j
+@Service
+public class FullTextIndex {
+
+    public static final String MEMBER = "member";
+    public static final String TEAM = "team";
+
+    private static final String KEY = "key";
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final int REINDEX_FETCH_SIZE = 10_000;
+
+    private final JPAQueryFactory queryFactory;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private volatile boolean loaded;
+
+    public FullTextIndex(JPAQueryFactory queryFactory,
+                         @Value("${full-text.index-dir:}") String indexDir) throws IOException {
+        this.queryFactory = queryFactory;
+        this.directory = StringUtils.hasText(indexDir) ? FSDirectory.open(Path.of(indexDir)) : new ByteBuffersDirectory();
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+        this.loaded = writer.getDocStats().numDocs > 0; // 디스크에 남아있던 인덱스는 그대로 쓴다
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * 점수 순 id. 단어마다 정확히 일치 > 접두어 > 편집 거리 2 이내 순으로 가중치를 준다.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> search(String type, String text, int limit) {
+        ensureLoaded();
+        Query query = buildQuery(type, text);
+        if (query == null) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                StoredFields storedFields = searcher.storedFields();
+                for (ScoreDoc hit : searcher.search(query, limit).scoreDocs) {
+                    ids.add(storedFields.document(hit.doc).getField(ID).numericValue().longValue());
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ids;
+    }
+
+    /**
+     * 전체 재색인. 끝나기 전까지 검색은 이전 인덱스를 본다.
+     */
+    @Transactional(readOnly = true)
+    public synchronized void reindex() {
+        try {
+            writer.deleteAll();
+            long members = index(MEMBER, QueryStreams.stream(queryFactory
+                    .select(member.id, member.username)
+                    .from(member), REINDEX_FETCH_SIZE), member.id, member.username);
+            long teams = index(TEAM, QueryStreams.stream(queryFactory
+                    .select(team.id, team.name)
+                    .from(team), REINDEX_FETCH_SIZE), team.id, team.name);
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            loaded = true;
+            log.debug("full-text index rebuilt: {} members, {} teams", members, teams);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkOperation(BulkOperationEvent event) {
+        if (event.getEntityType() == Member.class || event.getEntityType() == Team.class) {
+            invalidate(); // 다음 검색 때 다시 만든다
+        }
+    }
+
+    public synchronized void invalidate() {
+        loaded = false;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reindex();
+                }
+            }
+        }
+    }
+
+    private long index(String type, Stream<Tuple> rows, Expression<Long> id, Expression<String> name) throws IOException {
+        long count = 0;
+        try (rows) {
+            for (Tuple row : (Iterable<Tuple>) rows::iterator) {
+                if (row.get(name) != null) {
+                    writer.addDocument(document(type, row.get(id), row.get(name)));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private Query buildQuery(String type, String text) {
+        BooleanQuery.Builder words = new BooleanQuery.Builder();
+        int wordCount = 0;
+        try (TokenStream tokens = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                Term word = new Term(NAME, term.toString());
+                words.add(new BooleanQuery.Builder()
+                        .add(new BoostQuery(new TermQuery(word), 3f), BooleanClause.Occur.SHOULD)
+                        .add(new BoostQuery(new PrefixQuery(word), 2f), BooleanClause.Occur.SHOULD)
+                        .add(new FuzzyQuery(word, 2), BooleanClause.Occur.SHOULD)
+                        .build(), BooleanClause.Occur.SHOULD);
+                wordCount++;
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (wordCount == 0) {
+            return null;
+        }
+        return new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(TYPE, type)), BooleanClause.Occur.FILTER)
+                .add(words.build(), BooleanClause.Occur.MUST)
+                .build();
+    }
+
+    private static Document document(String type, Long id, String name) {
+        Document document = new Document();
+        document.add(new StringField(KEY, key(type, id), Field.Store.NO));
+        document.add(new StringField(TYPE, type, Field.Store.NO));
+        document.add(new StoredField(ID, id));
+        document.add(new TextField(NAME, name, Field.Store.NO));
+        return document;
+    }
+
+    private static Term key(String type, Object id) {
+        return new Term(KEY, type + ":" + id);
+    }
+
+    @EventListener
+    public void onMemberChange(MemberChangeEvent event) {
+        put(MEMBER, event.getId(), event.getAfter() == null ? null : event.getAfter().username());
+    }
+
+    @EventListener
+    public void onTeamChange(TeamChangeEvent event) {
+        put(TEAM, event.getId(), event.getName());
+    }
+
+    private void put(String type, Long id, String name) {
+        if (name == null) {
+            update(() -> writer.deleteDocuments(key(type, id)));
+        } else {
+            update(() -> writer.updateDocument(key(type, id), document(type, id, name)));
+        }
+    }
+
+    private synchronized void update(IndexUpdate update) {
+        try {
+            update.run();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface IndexUpdate {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,52 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.dto.MemberDto;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+/**
+ * 회원/팀 이름 전문 검색. FullTextIndex 에서 점수 순 id 를 받고, 필요한 값은 DB 에서 PK 로 읽어 그 순서대로 돌려준다.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class FullTextSearch {
+
+    private final FullTextIndex fullTextIndex;
+    private final JPAQueryFactory queryFactory;
+
+    public List<Long> searchMemberIds(String text, int limit) {
+        return fullTextIndex.search(FullTextIndex.MEMBER, text, limit);
+    }
+
+    public List<Long> searchTeamIds(String text, int limit) {
+        return fullTextIndex.search(FullTextIndex.TEAM, text, limit);
+    }
+
+    public List<MemberDto> searchMembers(String text, int limit) {
+        List<Long> ids = searchMemberIds(text, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, MemberDto> byId = new HashMap<>();
+        for (Tuple row : queryFactory
+                .select(member.id, member.username, member.age)
+                .from(member)
+                .where(member.id.in(ids))
+                .fetch()) {
+            byId.put(row.get(member.id), new MemberDto(row.get(member.username), row.get(member.age)));
+        }
+        // 색인 뒤에 지워진 회원은 빠진다
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,114 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import personal.tutorial.springbootquerydsl.dto.BulkResult;
+import personal.tutorial.springbootquerydsl.dto.MemberRow;
+import personal.tutorial.springbootquerydsl.entity.Member;
+import personal.tutorial.springbootquerydsl.entity.Team;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 대량 회원 적재.
+ * 입력을 chunkSize 단위로 끊어 chunk 마다 트랜잭션을 커밋하고, flush/clear 로 영속성 컨텍스트를 비운다.
+ * id 는 pooled 시퀀스(allocationSize 100)에서, INSERT 는 hibernate.jdbc.batch_size 로 묶여 나간다.
+ * chunk 단위로 커밋되므로 중간에 실패하면 그 전 chunk 까지는 반영된 상태로 남는다.
+ */
+@Slf4j
+@Service
+public class MemberBulkLoader {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1_000;
+
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+
+    public MemberBulkLoader(EntityManager em, PlatformTransactionManager transactionManager) {
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BulkResult load(Stream<MemberRow> rows) {
+        return load(rows, DEFAULT_CHUNK_SIZE);
+    }
+
+    public BulkResult load(Stream<MemberRow> rows, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize 는 1 이상이어야 합니다: " + chunkSize);
+        }
+        long start = System.nanoTime();
+        long total = 0;
+        long chunks = 0;
+        // 팀 엔티티 대신 id 만 기억해야 clear 이후에도 메모리가 늘지 않는다
+        Map<String, Long> teamIds = new HashMap<>();
+
+        try (rows) {
+            Iterator<MemberRow> iterator = rows.iterator();
+            List<MemberRow> chunk = new ArrayList<>(chunkSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    insertChunk(chunk, teamIds);
+                    total += chunk.size();
+                    chunks++;
+                    chunk.clear();
+                    if (chunks % 100 == 0) {
+                        log.info("member bulk load progress: rows={}, rows/sec={}", total, rowsPerSecond(total, start));
+                    }
+                }
+            }
+        }
+
+        BulkResult result = new BulkResult(total, chunks, (System.nanoTime() - start) / 1_000_000);
+        log.info("member bulk load done: {}, rows/sec={}", result, String.format("%.1f", result.getRowsPerSecond()));
+        return result;
+    }
+
+    private void insertChunk(List<MemberRow> chunk, Map<String, Long> teamIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (MemberRow row : chunk) {
+                Member member = new Member(row.getUsername(), row.getAge());
+                if (row.getTeamName() != null) {
+                    // changeTeam 은 team.members 컬렉션을 초기화하므로 쓰지 않는다
+                    member.setTeam(em.getReference(Team.class, teamIdOf(row.getTeamName(), teamIds)));
+                }
+                em.persist(member);
+            }
+            em.flush();
+            em.clear();
+        });
+    }
+
+    private Long teamIdOf(String teamName, Map<String, Long> teamIds) {
+        Long cached = teamIds.get(teamName);
+        if (cached != null) {
+            return cached;
+        }
+        Long id = em.createQuery("select t.id from Team t where t.name = :name", Long.class)
+                .setParameter("name", teamName)
+                .setMaxResults(1)
+                .getResultStream()
+                .findFirst()
+                .orElseGet(() -> {
+                    Team team = new Team(teamName);
+                    em.persist(team);
+                    return team.getId();
+                });
+        teamIds.put(teamName, id);
+        return id;
+    }
+
+    private static String rowsPerSecond(long rows, long startNanos) {
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        return String.format("%.1f", rows * 1000.0 / elapsedMillis);
+    }
+}
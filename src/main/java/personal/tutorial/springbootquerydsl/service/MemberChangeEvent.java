@@ -0,0 +1,35 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import lombok.Getter;
+
+/**
+ * 커밋된 Member 변경. insert 는 before 가, delete 는 after 가 null 이다.
+ * detached merge 처럼 Hibernate 가 이전 값을 모르는 update 도 before 가 null 이므로 {@link #isBeforeUnknown()} 로 구분한다.
+ */
+@Getter
+public class MemberChangeEvent {
+    private final ChangeType type;
+    private final Long id;
+    private final MemberState before;
+    private final MemberState after;
+    // 이 변경이 flush 된 순번 (EntityChangePublisher#currentFlushSequence). 모르면 0
+    private final long flushSequence;
+
+    public MemberChangeEvent(ChangeType type, Long id, MemberState before, MemberState after, long flushSequence) {
+        this.type = type;
+        this.id = id;
+        this.before = before;
+        this.after = after;
+        this.flushSequence = flushSequence;
+    }
+
+    public boolean isBeforeUnknown() {
+        return type == ChangeType.UPDATE && before == null;
+    }
+
+    /**
+     * 인덱스들이 쓰는 Member 속성만 담은 값. team 은 프록시를 초기화하지 않도록 id 로만 들고 있다.
+     */
+    public record MemberState(String username, int age, Long teamId) {
+    }
+}
@@ -0,0 +1,19 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import lombok.Getter;
+
+/**
+ * 커밋된 Team 변경. delete 면 name 이 null 이다.
+ */
+@Getter
+public class TeamChangeEvent {
+    private final ChangeType type;
+    private final Long id;
+    private final String name;
+
+    public TeamChangeEvent(ChangeType type, Long id, String name) {
+        this.type = type;
+        this.id = id;
+        this.name = name;
+    }
+}
@@ -0,0 +1,220 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import personal.tutorial.springbootquerydsl.dto.TeamStatsDto;
+import personal.tutorial.springbootquerydsl.entity.Member;
+import personal.tutorial.springbootquerydsl.entity.Team;
+import personal.tutorial.springbootquerydsl.service.MemberChangeEvent.MemberState;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+/**
+ * 팀별 회원 수/나이 합계/평균/최대/최소를 메모리에 유지한다. (aggregation, groupByTeamNameAndAge 테스트의 GROUP BY 대체)
+ * <p>
+ * 처음 조회할 때 GROUP BY 한 번으로 채우고, 그 뒤로는 커밋된 Member 변경({@link MemberChangeEvent})으로 증분 갱신한다.
+ * 최대/최소는 뺄셈으로 되돌릴 수 없으므로 나이별 인원수(히스토그램)를 같이 들고 있는다.
+ * 이미 읽어온 값에 들어갔을 수 있는 변경(flush 순번으로 판단)은 더하지 않고, 그 팀을 다음 조회 때 DB 에서 다시 센다.
+ * 벌크 update/delete 는 엔티티 이벤트가 없으므로 {@link BulkOperationEvent} 를 받으면 다시 계산한다.
+ * BulkExecutor 를 거치지 않고 queryFactory.update(member) 를 직접 실행했다면 {@link #rebuild()} 를 호출해야 한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TeamStatistics {
+
+    private final JPAQueryFactory queryFactory;
+    private final EntityChangePublisher changePublisher;
+
+    private final Map<Long, Accumulator> byTeam = new HashMap<>();
+    private boolean loaded;
+    private boolean rebuilding;
+    private long generation; // invalidate 할 때마다 증가. 재계산 중에 무효화되면 결과를 쓰지 않는다
+    // GROUP BY 를 다 읽은 뒤의 flush 순번. 순번이 이보다 큰 변경은 GROUP BY 에 들어갔을 수 없으므로 증분 반영한다
+    private long watermark;
+    private final Map<Long, Long> teamWatermarks = new HashMap<>(); // 팀 단위로 다시 센 뒤의 flush 순번
+    private final Set<Long> dirtyTeams = new HashSet<>(); // 조회 전에 DB 에서 다시 세야 하는 팀
+    private final Set<Long> recounting = new HashSet<>();
+    private final Object rebuildLock = new Object();
+
+    @Transactional(readOnly = true)
+    public TeamStatsDto get(Long teamId) {
+        synchronized (rebuildLock) {
+            if (!isLoaded()) {
+                rebuild();
+            }
+        }
+        while (true) {
+            long startedAt;
+            synchronized (this) {
+                if (!dirtyTeams.remove(teamId)) {
+                    Accumulator accumulator = byTeam.get(teamId);
+                    return accumulator == null ? new TeamStatsDto(teamId, 0, 0, 0, null, null) : accumulator.toDto(teamId);
+                }
+                recounting.add(teamId);
+                startedAt = generation;
+            }
+            Accumulator accumulator = recount(teamId);
+            long sequence = changePublisher.currentFlushSequence();
+            synchronized (this) {
+                recounting.remove(teamId);
+                if (generation == startedAt) {
+                    put(teamId, accumulator);
+                    teamWatermarks.put(teamId, sequence);
+                }
+            }
+            // 다시 세는 동안 이 팀에 변경이 들어왔으면 dirty 로 남아 있으므로 한 번 더 센다
+        }
+    }
+
+    /**
+     * GROUP BY 는 모니터 밖에서 실행하고, 그동안 들어온 커밋 이벤트는 증분 반영하지 않고 팀 id 만 모아둔다.
+     * 바꿔치기 뒤에도 GROUP BY 가 끝나기 전에 flush 된 변경의 이벤트는 이미 결과에 들어갔을 수 있으므로 팀 id 만 모은다.
+     * 모아둔 팀은 그 팀을 조회할 때 팀 단위로 다시 센다.
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long startedAt;
+            synchronized (this) {
+                rebuilding = true;
+                dirtyTeams.clear();
+                teamWatermarks.clear();
+                startedAt = generation;
+            }
+            try {
+                Map<Long, Accumulator> fresh = new HashMap<>();
+                for (Tuple row : queryFactory
+                        .select(member.team.id, member.age, member.count())
+                        .from(member)
+                        .where(member.team.isNotNull())
+                        .groupBy(member.team.id, member.age)
+                        .fetch()) {
+                    fresh.computeIfAbsent(row.get(member.team.id), id -> new Accumulator())
+                            .add(row.get(member.age), row.get(member.count()));
+                }
+                long sequence = changePublisher.currentFlushSequence();
+                synchronized (this) {
+                    byTeam.clear();
+                    byTeam.putAll(fresh);
+                    watermark = sequence;
+                    loaded = generation == startedAt;
+                    log.debug("team statistics rebuilt: {} teams, {} to recount", byTeam.size(), dirtyTeams.size());
+                }
+            } finally {
+                synchronized (this) {
+                    rebuilding = false;
+                }
+            }
+        }
+    }
+
+    // 호출자 트랜잭션 안에서 실행된 벌크 연산은 커밋된 뒤에 다시 읽어야 커밋 전 데이터로 만들지 않는다
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkOperation(BulkOperationEvent event) {
+        if (event.getEntityType() == Member.class || event.getEntityType() == Team.class) {
+            invalidate(); // 다음 조회 때 다시 계산
+        }
+    }
+
+    public synchronized void invalidate() {
+        loaded = false;
+        generation++;
+        byTeam.clear();
+        dirtyTeams.clear();
+        teamWatermarks.clear();
+    }
+
+    @EventListener
+    public synchronized void onMemberChange(MemberChangeEvent event) {
+        if (event.isBeforeUnknown()) {
+            invalidate(); // detached merge 처럼 이전 값을 모르면 증분 갱신이 불가능하다
+            return;
+        }
+        if (!loaded && !rebuilding) {
+            return; // 아직 채우기 전이면 첫 조회 때 GROUP BY 로 한꺼번에 계산된다
+        }
+        apply(event.getBefore(), -1, event.getFlushSequence());
+        apply(event.getAfter(), 1, event.getFlushSequence());
+    }
+
+    private synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    private Accumulator recount(Long teamId) {
+        Accumulator accumulator = new Accumulator();
+        for (Tuple row : queryFactory
+                .select(member.age, member.count())
+                .from(member)
+                .where(member.team.id.eq(teamId))
+                .groupBy(member.age)
+                .fetch()) {
+            accumulator.add(row.get(member.age), row.get(member.count()));
+        }
+        return accumulator;
+    }
+
+    /**
+     * 지금 들고 있는 값이 이 변경을 이미 포함했을 수 있으면(GROUP BY/다시 세기 중이거나, 그 읽기가 끝나기 전에 flush 됨)
+     * 더하지 않고 dirty 로 표시한다.
+     */
+    private void apply(MemberState state, int sign, long flushSequence) {
+        if (state == null || state.teamId() == null) {
+            return;
+        }
+        Long teamId = state.teamId();
+        if (rebuilding || recounting.contains(teamId) || dirtyTeams.contains(teamId)
+                || flushSequence <= Math.max(watermark, teamWatermarks.getOrDefault(teamId, 0L))) {
+            dirtyTeams.add(teamId);
+            return;
+        }
+        Accumulator accumulator = byTeam.computeIfAbsent(teamId, id -> new Accumulator());
+        accumulator.add(state.age(), sign);
+        if (accumulator.count == 0) {
+            byTeam.remove(teamId);
+        }
+    }
+
+    private void put(Long teamId, Accumulator accumulator) {
+        if (accumulator.count == 0) {
+            byTeam.remove(teamId);
+        } else {
+            byTeam.put(teamId, accumulator);
+        }
+    }
+
+    private static class Accumulator {
+        private long count;
+        private long sum;
+        private final TreeMap<Integer, Long> ages = new TreeMap<>();
+
+        void add(int age, long delta) {
+            count += delta;
+            sum += age * delta;
+            long left = ages.merge(age, delta, Long::sum);
+            if (left <= 0) {
+                ages.remove(age);
+            }
+        }
+
+        TeamStatsDto toDto(Long teamId) {
+            if (count == 0) {
+                return new TeamStatsDto(teamId, 0, 0, 0, null, null);
+            }
+            return new TeamStatsDto(teamId, count, sum, (double) sum / count, ages.lastKey(), ages.firstKey());
+        }
+    }
+}
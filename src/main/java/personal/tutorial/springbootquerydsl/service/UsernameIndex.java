@@ -0,0 +1,302 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import personal.tutorial.springbootquerydsl.entity.Member;
+import personal.tutorial.springbootquerydsl.repository.QueryStreams;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+/**
+ * Member.username 의 메모리 인덱스. 앞에 % 가 붙는 LIKE 는 DB 인덱스를 못 타므로 여기서 id 를 먼저 찾는다.
+ * <ul>
+ *     <li>prefix(startsWith, 자동완성): (username, id) 정렬 skip list 에서 범위 조회. O(log n + limit)</li>
+ *     <li>substring(contains): 트라이그램별 id 비트맵(Roaring)의 교집합으로 후보를 좁히고, 정렬된 username 에서 실제로 포함하는 것만 고른다</li>
+ * </ul>
+ * TeamStatistics 와 같이 커밋된 {@link MemberChangeEvent} 로 갱신하고, 벌크 연산이 있으면 다음 조회 때 다시 만든다.
+ * 대소문자는 LIKE 와 같이 구분한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UsernameIndex {
+
+    private static final char PAD = '\0'; // 1~2 글자 이름도 트라이그램이 생기도록 앞뒤에 붙인다
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::username).thenComparingLong(Entry::id);
+    private static final int REBUILD_FETCH_SIZE = 10_000;
+
+    private final JPAQueryFactory queryFactory;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock(); // 트라이그램 비트맵은 스레드 안전하지 않다
+    private volatile NavigableSet<Entry> byUsername = new ConcurrentSkipListSet<>(ORDER);
+    private volatile Map<String, Roaring64NavigableMap> byTrigram = new HashMap<>();
+    private volatile boolean loaded;
+    private long generation; // invalidate 할 때마다 증가. 재구축 중에 무효화되면 결과를 loaded 로 두지 않는다
+    private List<MemberChangeEvent> pending; // 재구축 중에만 null 이 아니다 (this 로 보호)
+    private final Object rebuildLock = new Object();
+
+    private record Entry(String username, long id) {
+    }
+
+    /**
+     * prefix 로 시작하는 username (중복 제거, 정렬 순서)
+     */
+    @Transactional(readOnly = true)
+    public List<String> autocomplete(String prefix, int limit) {
+        Set<String> usernames = new LinkedHashSet<>();
+        for (Entry entry : prefixRange(prefix)) {
+            if (usernames.size() >= limit) {
+                break;
+            }
+            usernames.add(entry.username());
+        }
+        return new ArrayList<>(usernames);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> findIdsByPrefix(String prefix, int limit) {
+        List<Long> ids = new ArrayList<>();
+        for (Entry entry : prefixRange(prefix)) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            ids.add(entry.id());
+        }
+        return ids;
+    }
+
+    /**
+     * fragment 를 포함하는 id (username, id 순, 최대 limit 개).
+     * 트라이그램 후보는 떨어진 위치에서도 걸리므로, 정렬된 username 을 앞에서부터 훑으며 후보이면서 실제로 포함하는 것만 고른다.
+     * limit 개를 채우면 멈추므로 흔한 조각은 금방 끝나고, 드문 조각은 최악의 경우 전체를 한 번 훑는다. (DB 의 LIKE '%..%' 와 같은 양이지만 메모리에서)
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findIdsContaining(String fragment, int limit) {
+        ensureLoaded();
+        NavigableSet<Entry> usernames;
+        Roaring64NavigableMap candidates;
+        lock.readLock().lock();
+        try {
+            usernames = byUsername;
+            candidates = fragment.length() >= 3 ? intersect(fragment) : union(fragment);
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Long> ids = new ArrayList<>();
+        if (candidates.isEmpty()) {
+            return ids;
+        }
+        for (Entry entry : usernames) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            if (candidates.contains(entry.id()) && entry.username().contains(fragment)) {
+                ids.add(entry.id());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 전체를 다시 읽는 동안에도 커밋은 막지 않는다. 그 사이 들어온 변경은 모아두었다가 바꿔치기 직전에 새 구조에 다시 적용한다.
+     * 추가/삭제는 같은 것을 두 번 적용해도 결과가 같으므로, 이미 스캔에 반영된 커밋이어도 그대로 적용하면 된다.
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long startedAt;
+            synchronized (this) {
+                pending = new ArrayList<>();
+                startedAt = generation;
+            }
+            try {
+                NavigableSet<Entry> usernames = new ConcurrentSkipListSet<>(ORDER);
+                Map<String, Roaring64NavigableMap> trigrams = new HashMap<>();
+                try (Stream<Tuple> rows = QueryStreams.stream(queryFactory
+                        .select(member.id, member.username)
+                        .from(member)
+                        .where(member.username.isNotNull()), REBUILD_FETCH_SIZE)) {
+                    rows.forEach(row -> add(usernames, trigrams, row.get(member.id), row.get(member.username)));
+                }
+                trigrams.values().forEach(Roaring64NavigableMap::runOptimize);
+
+                synchronized (this) {
+                    boolean complete = generation == startedAt;
+                    for (MemberChangeEvent event : pending) {
+                        if (event.isBeforeUnknown()) {
+                            complete = false;
+                        } else {
+                            apply(usernames, trigrams, event);
+                        }
+                    }
+                    lock.writeLock().lock();
+                    try {
+                        byUsername = usernames;
+                        byTrigram = trigrams;
+                        loaded = complete;
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+                log.debug("username index rebuilt: {} members, {} trigrams", usernames.size(), trigrams.size());
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+            }
+        }
+    }
+
+    // 커밋 뒤에 받는다. 트랜잭션 밖에서 발행되면 바로 받는다
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkOperation(BulkOperationEvent event) {
+        if (event.getEntityType() == Member.class) {
+            invalidate(); // 다음 조회 때 다시 만든다
+        }
+    }
+
+    public synchronized void invalidate() {
+        loaded = false;
+        generation++;
+    }
+
+    private NavigableSet<Entry> prefixRange(String prefix) {
+        ensureLoaded();
+        return byUsername.subSet(new Entry(prefix, Long.MIN_VALUE), true,
+                new Entry(prefix + Character.MAX_VALUE, Long.MIN_VALUE), false);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (rebuildLock) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    private Roaring64NavigableMap intersect(String fragment) {
+        Roaring64NavigableMap result = null;
+        for (int i = 0; i + 3 <= fragment.length(); i++) {
+            Roaring64NavigableMap ids = byTrigram.get(fragment.substring(i, i + 3));
+            if (ids == null) {
+                return new Roaring64NavigableMap();
+            }
+            if (result == null) {
+                result = copyOf(ids);
+            } else {
+                result.and(ids);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 1~2 글자는 그 글자를 포함하는 트라이그램들의 합집합. 트라이그램 종류는 회원 수와 무관하게 수만 개 수준이다.
+     */
+    private Roaring64NavigableMap union(String fragment) {
+        Roaring64NavigableMap result = new Roaring64NavigableMap();
+        byTrigram.forEach((trigram, ids) -> {
+            if (trigram.contains(fragment)) {
+                result.or(ids);
+            }
+        });
+        return result;
+    }
+
+    private static Roaring64NavigableMap copyOf(Roaring64NavigableMap ids) {
+        Roaring64NavigableMap copy = new Roaring64NavigableMap();
+        copy.or(ids);
+        return copy;
+    }
+
+    static Set<String> trigrams(String username) {
+        String padded = PAD + username + PAD;
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    @EventListener
+    public synchronized void onMemberChange(MemberChangeEvent event) {
+        if (pending != null) {
+            pending.add(event); // 재구축 중이면 새 구조에 적용되도록 모아둔다
+            return;
+        }
+        if (event.isBeforeUnknown()) {
+            invalidate(); // 이전 username 을 모르면 지울 수 없다
+            return;
+        }
+        if (!loaded) {
+            return; // 아직 만들기 전이면 첫 조회 때 한꺼번에 채워진다
+        }
+        lock.writeLock().lock();
+        try {
+            apply(byUsername, byTrigram, event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(NavigableSet<Entry> usernames, Map<String, Roaring64NavigableMap> trigrams,
+                              MemberChangeEvent event) {
+        String before = event.getBefore() == null ? null : event.getBefore().username();
+        String after = event.getAfter() == null ? null : event.getAfter().username();
+        if (!Objects.equals(before, after)) {
+            remove(usernames, trigrams, event.getId(), before);
+            add(usernames, trigrams, event.getId(), after);
+        }
+    }
+
+    private static void add(NavigableSet<Entry> usernames, Map<String, Roaring64NavigableMap> trigrams,
+                            long id, String username) {
+        if (username == null) {
+            return;
+        }
+        usernames.add(new Entry(username, id));
+        for (String trigram : trigrams(username)) {
+            trigrams.computeIfAbsent(trigram, t -> new Roaring64NavigableMap()).addLong(id);
+        }
+    }
+
+    private static void remove(NavigableSet<Entry> usernames, Map<String, Roaring64NavigableMap> trigrams,
+                               long id, String username) {
+        if (username == null) {
+            return;
+        }
+        usernames.remove(new Entry(username, id));
+        for (String trigram : trigrams(username)) {
+            Roaring64NavigableMap ids = trigrams.get(trigram);
+            if (ids != null) {
+                ids.removeLong(id);
+                if (ids.isEmpty()) {
+                    trigrams.remove(trigram);
+                }
+            }
+        }
+    }
+}
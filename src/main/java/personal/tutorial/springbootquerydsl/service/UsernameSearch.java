@@ -0,0 +1,57 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.dto.MemberTeamDto;
+import personal.tutorial.springbootquerydsl.dto.QMemberTeamDto;
+
+import java.util.List;
+
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+import static personal.tutorial.springbootquerydsl.entity.QTeam.team;
+
+/**
+ * username startsWith/contains 검색. UsernameIndex 로 id 를 먼저 찾고, DB 는 PK 로만 읽는다.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class UsernameSearch {
+
+    private final UsernameIndex usernameIndex;
+    private final JPAQueryFactory queryFactory;
+
+    public List<String> autocomplete(String prefix, int limit) {
+        return usernameIndex.autocomplete(prefix, limit);
+    }
+
+    public List<MemberTeamDto> findByUsernamePrefix(String prefix, int limit) {
+        List<Long> ids = usernameIndex.findIdsByPrefix(prefix, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.id.in(ids))
+                .orderBy(member.username.asc(), member.id.asc())
+                .fetch();
+    }
+
+    public List<MemberTeamDto> findByUsernameContaining(String fragment, int limit) {
+        List<Long> ids = usernameIndex.findIdsContaining(fragment, limit); //이미 실제로 포함하는 것만 limit 개
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.id.in(ids))
+                .orderBy(member.username.asc(), member.id.asc())
+                .fetch();
+    }
+}
@@ -0,0 +1,29 @@
+-- 엔티티 매핑과 같은 초기 스키마. ddl-auto: create 로 만들어진 DB 에도 그대로 적용되도록 IF NOT EXISTS 를 쓴다.
+-- 시퀀스 증가값은 @SequenceGenerator(allocationSize) 와 같아야 한다.
+
+create sequence if not exists team_seq start with 1 increment by 100;
+create sequence if not exists member_seq start with 1 increment by 100;
+create sequence if not exists hello_seq start with 1 increment by 50;
+
+create table if not exists team
+(
+    team_id bigint       not null,
+    name    varchar(255),
+    primary key (team_id)
+);
+
+create table if not exists member
+(
+    member_id bigint       not null,
+    username  varchar(255),
+    age       integer      not null,
+    team_id   bigint,
+    primary key (member_id),
+    constraint fk_member_team foreign key (team_id) references team (team_id)
+);
+
+create table if not exists hello
+(
+    id bigint not null,
+    primary key (id)
+);
@@ -0,0 +1,13 @@
+-- QuerydslBasicTest / 리포지토리의 조회 조건에 맞춘 인덱스. 검증은 QueryPlanTest 가 EXPLAIN 으로 한다.
+
+-- username = ? (select username, age 까지 인덱스만으로 끝난다)
+create index if not exists idx_member_username_age on member (username, age);
+
+-- age 범위/동등 조건 + order by age desc, username asc
+create index if not exists idx_member_age_username on member (age desc, username asc);
+
+-- member.team 조인(외래 키)과 팀 안에서의 나이 조건
+create index if not exists idx_member_team_age on member (team_id, age);
+
+-- team.name = ?
+create index if not exists idx_team_name on team (name);
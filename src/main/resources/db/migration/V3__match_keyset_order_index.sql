@@ -0,0 +1,7 @@
+-- MemberKeysetRepository 의 정렬 (age desc, username asc nulls last, id asc) 과 같은 순서의 인덱스.
+-- V2 의 (age desc, username asc) 는 null 위치가 다르고 id 가 없어서 페이지마다 전체 정렬이 필요했다.
+-- age 범위/동등 조건도 이 인덱스로 처리된다.
+
+drop index if exists idx_member_age_username;
+
+create index if not exists idx_member_age_username_id on member (age desc, username asc nulls last, member_id asc);
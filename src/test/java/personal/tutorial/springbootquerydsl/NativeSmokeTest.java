@@ -0,0 +1,88 @@
+package personal.tutorial.springbootquerydsl;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.dto.MemberDto;
+import personal.tutorial.springbootquerydsl.dto.MemberSearchCondition;
+import personal.tutorial.springbootquerydsl.dto.QMemberDto;
+import personal.tutorial.springbootquerydsl.entity.Member;
+import personal.tutorial.springbootquerydsl.entity.Team;
+import personal.tutorial.springbootquerydsl.repository.CountStrategy;
+import personal.tutorial.springbootquerydsl.repository.CursorPage;
+import personal.tutorial.springbootquerydsl.repository.EntityViewRepository;
+import personal.tutorial.springbootquerydsl.repository.MemberKeysetRepository;
+import personal.tutorial.springbootquerydsl.repository.MemberQueryRepository;
+import personal.tutorial.springbootquerydsl.repository.MemberWindowQueryRepository;
+import personal.tutorial.springbootquerydsl.repository.ReadOnlyQueries;
+import personal.tutorial.springbootquerydsl.repository.TeamQueryRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static personal.tutorial.springbootquerydsl.TestFixture.persistTeamsWithMembers;
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+/**
+ * native image 에서 주요 조회 경로가 도는지 확인한다 (./gradlew nativeTest -Pnative).
+ * QueryDSL(JPQL, DTO projection), Blaze(윈도우 함수, Entity View), 지연 로딩 프록시, 메모리 H2 + Flyway.
+ * JVM 에서도 그대로 돈다.
+ */
+@Tag("native")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:smoke;DB_CLOSE_DELAY=-1")
+@Transactional
+public class NativeSmokeTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    MemberQueryRepository memberQueryRepository;
+    @Autowired
+    MemberKeysetRepository memberKeysetRepository;
+    @Autowired
+    TeamQueryRepository teamQueryRepository;
+    @Autowired
+    MemberWindowQueryRepository memberWindowQueryRepository;
+    @Autowired
+    EntityViewRepository entityViewRepository;
+    @Autowired
+    ReadOnlyQueries readOnlyQueries;
+
+    Team teamA;
+
+    @BeforeEach
+    public void before() {
+        teamA = persistTeamsWithMembers(em).teamA();
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void queryDslPaths() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+
+        assertThat(memberQueryRepository.search(condition)).extracting("username").containsExactly("member3", "member4");
+        assertThat(memberQueryRepository.countMembers(condition, CountStrategy.capped(10)).getValue()).isEqualTo(2);
+        assertThat(readOnlyQueries.fetch(new QMemberDto(member.username, member.age),
+                q -> q.from(member).where(member.age.goe(30)))).extracting(MemberDto::getUsername)
+                .containsExactlyInAnyOrder("member3", "member4");
+
+        CursorPage<Member> page = memberKeysetRepository.findPage(null, 3);
+        assertThat(page.getContent()).hasSize(3);
+        assertThat(page.getContent().get(0).getTeam().getName()).isEqualTo("teamA"); // 지연 로딩 프록시 초기화
+    }
+
+    @Test
+    public void blazePaths() {
+        assertThat(memberWindowQueryRepository.findOldestMembers()).extracting(MemberDto::getAge).containsExactly(40);
+        assertThat(entityViewRepository.findTeamWithMembers(teamA.getId()).getMembers()).hasSize(2);
+        List<Team> teams = teamQueryRepository.findTeamsWithMembers(0, 10);
+        assertThat(teams).hasSize(2);
+        assertThat(teams.get(1).getMembers()).hasSize(2);
+    }
+}
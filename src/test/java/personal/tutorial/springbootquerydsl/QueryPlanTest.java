@@ -0,0 +1,205 @@
+package personal.tutorial.springbootquerydsl;
+
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.dto.QMemberDto;
+import personal.tutorial.springbootquerydsl.entity.Member;
+import personal.tutorial.springbootquerydsl.entity.QMember;
+import personal.tutorial.springbootquerydsl.entity.Team;
+import personal.tutorial.springbootquerydsl.repository.MemberCursor;
+import personal.tutorial.springbootquerydsl.repository.MemberKeysetRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+import static personal.tutorial.springbootquerydsl.entity.QTeam.team;
+
+/**
+ * 등록된 조회(QueryDSL 쿼리, 리포지토리 메서드)를 실행해서 나간 SQL 을 그대로 H2 EXPLAIN 에 넣어 보고,
+ * query-plan.max-scan-rows 보다 행이 많은 테이블을 tableScan 하면 실패한다.
+ * 인덱스는 db/migration 의 V2, V3. 새 조회 조건을 만들면 registeredQueries() 에 추가한다.
+ */
+@SpringBootTest
+@Transactional
+public class QueryPlanTest {
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("PUBLIC\\.(\\w+)\\.tableScan", Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    DataSource dataSource;
+    @Autowired
+    MemberKeysetRepository memberKeysetRepository;
+
+    @Value("${query-plan.max-scan-rows:500}")
+    long maxScanRows;
+
+    @BeforeEach
+    public void before() {
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Team t = new Team("team" + i);
+            em.persist(t);
+            teams.add(t);
+        }
+        // 전체 조회가 tableScan 으로 걸리도록 기준보다 많이 넣는다
+        for (int i = 0; i < 2_000; i++) {
+            em.persist(new Member("member" + i, i % 100, teams.get(i % teams.size())));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    Map<String, Runnable> registeredQueries() {
+        QMember memberSub = new QMember("memberSub");
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        query(queries, "username eq", () -> queryFactory
+                .selectFrom(member)
+                .where(member.username.eq("member1")));
+        query(queries, "username eq, age between", () -> queryFactory
+                .selectFrom(member)
+                .where(member.username.eq("member1"), member.age.between(10, 20)));
+        query(queries, "dto by username", () -> queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .where(member.username.eq("member1")));
+        query(queries, "age eq, order by age desc, username asc", () -> queryFactory
+                .selectFrom(member)
+                .where(member.age.eq(100))
+                .orderBy(member.age.desc(), member.username.asc().nullsLast()));
+        query(queries, "age range", () -> queryFactory
+                .selectFrom(member)
+                .where(member.age.goe(95)));
+        query(queries, "top by age desc, username asc", () -> queryFactory
+                .selectFrom(member)
+                .orderBy(member.age.desc(), member.username.asc().nullsLast(), member.id.asc())
+                .limit(10));
+        query(queries, "max age subquery", () -> queryFactory
+                .selectFrom(member)
+                .where(member.age.eq(JPAExpressions.select(memberSub.age.max()).from(memberSub))));
+        query(queries, "join team by name", () -> queryFactory
+                .selectFrom(member)
+                .join(member.team, team)
+                .where(team.name.eq("team1")));
+        query(queries, "team members by age", () -> queryFactory
+                .selectFrom(member)
+                .where(member.team.id.eq(1L), member.age.goe(90)));
+        queries.put("keyset first page", () -> memberKeysetRepository.findPage(null, 20));
+        queries.put("keyset middle page", () -> memberKeysetRepository.findPage(
+                new MemberCursor(50, "member1050", Long.MAX_VALUE).encode(), 20));
+        return queries;
+    }
+
+    private static void query(Map<String, Runnable> queries, String name, Supplier<JPAQuery<?>> query) {
+        queries.put(name, () -> query.get().fetch());
+    }
+
+    @Test
+    public void registeredQueriesUseIndexes() {
+        List<String> violations = new ArrayList<>();
+        registeredQueries().forEach((name, query) -> {
+            for (CapturedStatement statement : capture(query)) {
+                String plan = explain(statement);
+                Matcher scan = TABLE_SCAN.matcher(plan);
+                while (scan.find()) {
+                    long rows = rowCount(scan.group(1));
+                    if (rows > maxScanRows) {
+                        violations.add(name + ": " + scan.group(1) + " tableScan (" + rows + "행)\n" + plan);
+                    }
+                }
+            }
+        });
+
+        assertThat(violations).as(String.join("\n\n", violations)).isEmpty();
+    }
+
+    private record CapturedStatement(String sql, List<ParameterSetOperation> parameters) {
+    }
+
+    /**
+     * datasource-proxy 리스너 체인에 잠깐 끼어들어 실행된 SQL 과 바인딩 값을 모은다
+     */
+    private List<CapturedStatement> capture(Runnable work) {
+        List<CapturedStatement> captured = new ArrayList<>();
+        QueryExecutionListener listener = new QueryExecutionListener() {
+            @Override
+            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            }
+
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                for (QueryInfo queryInfo : queryInfoList) {
+                    List<ParameterSetOperation> parameters = queryInfo.getParametersList().isEmpty()
+                            ? List.of() : queryInfo.getParametersList().get(0);
+                    captured.add(new CapturedStatement(queryInfo.getQuery(), parameters));
+                }
+            }
+        };
+        ProxyDataSource proxy = (ProxyDataSource) dataSource;
+        proxy.getProxyConfig().getQueryListener().addListener(listener);
+        try {
+            work.run();
+        } finally {
+            proxy.getProxyConfig().getQueryListener().getListeners().remove(listener);
+            em.clear();
+        }
+        return captured;
+    }
+
+    private String explain(CapturedStatement statement) {
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement("explain " + statement.sql())) {
+                for (ParameterSetOperation parameter : statement.parameters()) {
+                    parameter.getMethod().invoke(ps, parameter.getArgs());
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("바인딩 값을 다시 넣지 못했습니다: " + statement.sql(), e);
+            }
+        });
+    }
+
+    private long rowCount(String table) {
+        return em.unwrap(Session.class).doReturningWork(connection -> rowCount(connection, table));
+    }
+
+    private static long rowCount(Connection connection, String table) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("select count(*) from " + table);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -28,6 +28,9 @@ import personal.tutorial.springbootquerydsl.dto.UserDto;
 import personal.tutorial.springbootquerydsl.entity.Member;
 import personal.tutorial.springbootquerydsl.entity.QMember;
 import personal.tutorial.springbootquerydsl.entity.Team;
+import personal.tutorial.springbootquerydsl.monitoring.QueryBudgetExceededException;
+import personal.tutorial.springbootquerydsl.monitoring.QueryCounter;
+import personal.tutorial.springbootquerydsl.monitoring.QueryScope;
 
 import java.util.List;
 
@@ -409,6 +412,28 @@ public class QuerydslBasicTest {
         Assertions.assertThat(loaded).isTrue();
     }
 
+    @Test
+    @DisplayName("회원마다 팀을 따로 조회하면 같은 SQL 반복(N+1), 페치 조인은 한 번")
+    public void fetchJoinQueryCount() {
+        em.flush();
+        em.clear();
+
+        try (QueryScope scope = QueryCounter.start("fetchJoin")) {
+            for (Member m : queryFactory.selectFrom(member).join(member.team, team).fetchJoin().fetch()) {
+                m.getTeam().getName();
+            }
+            scope.assertStatementCountAtMost(1);
+        }
+
+        try (QueryScope scope = QueryCounter.start("perMember")) {
+            for (Member m : queryFactory.selectFrom(member).fetch()) {
+                queryFactory.selectFrom(team).where(team.id.eq(m.getTeam().getId())).fetchOne(); //회원마다 팀 조회
+            }
+            Assertions.assertThatThrownBy(() -> scope.assertNoRepeatedStatements(1))
+                    .isInstanceOf(QueryBudgetExceededException.class);
+        }
+    }
+
     @Test
     @DisplayName("나이 가장 많은 회원 조회") //연관관계가 있을 때, Lazy보다 우선하여 한번에 불러오는 역할을 수행한다.
     public void subQuery() {
@@ -0,0 +1,43 @@
+package personal.tutorial.springbootquerydsl;
+
+import jakarta.persistence.EntityManager;
+import personal.tutorial.springbootquerydsl.entity.Member;
+import personal.tutorial.springbootquerydsl.entity.Team;
+
+/**
+ * 테스트 데이터. 테스트마다 자기에게 필요한 것만 넣는다.
+ * {@link #persistTeamsWithMembers} 는 QuerydslBasicTest.before() 와 같은 teamA(member1 10살, member2 20살), teamB(member3 30살, member4 40살)이다.
+ */
+public final class TestFixture {
+
+    private TestFixture() {
+    }
+
+    public record Teams(Team teamA, Team teamB) {
+    }
+
+    public static Teams persistTeamsWithMembers(EntityManager em) {
+        Team teamA = persistTeam(em, "teamA");
+        Team teamB = persistTeam(em, "teamB");
+        persistMember(em, "member1", 10, teamA);
+        persistMember(em, "member2", 20, teamA);
+        persistMember(em, "member3", 30, teamB);
+        persistMember(em, "member4", 40, teamB);
+        return new Teams(teamA, teamB);
+    }
+
+    public static Team persistTeam(EntityManager em, String name) {
+        Team team = new Team(name);
+        em.persist(team);
+        return team;
+    }
+
+    /**
+     * team 이 null 이면 팀 없는 회원
+     */
+    public static Member persistMember(EntityManager em, String username, int age, Team team) {
+        Member member = new Member(username, age, team);
+        em.persist(member);
+        return member;
+    }
+}
@@ -0,0 +1,64 @@
+package personal.tutorial.springbootquerydsl.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * primary 는 기본 H2, replica 는 메모리 H2 로 띄워서 커넥션이 어느 쪽으로 가는지 확인한다.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa"
+})
+class ReadWriteRoutingDataSourceTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void readOnlyGoesToReplica() {
+        assertThat(connectionUrl(true)).contains("mem:replica");
+        assertThat(connectionUrl(false)).doesNotContain("mem:replica");
+    }
+
+    @Test
+    @DisplayName("레플리카에 붙을 수 없으면 읽기 전용이어도 primary 로 보낸다")
+    public void fallbackToPrimaryWhenReplicaUnusable() {
+        try (ReplicaLagMonitor monitor = new ReplicaLagMonitor(
+                new DriverManagerDataSource("jdbc:h2:mem:no-replica;IFEXISTS=TRUE"), null,
+                Duration.ofSeconds(5), Duration.ofHours(1))) {
+            monitor.check();
+            ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(monitor, new SimpleMeterRegistry());
+
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            try {
+                assertThat(monitor.isUsable()).isFalse();
+                assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.PRIMARY);
+            } finally {
+                TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            }
+        }
+    }
+
+    private String connectionUrl(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> em.unwrap(Session.class)
+                .doReturningWork(connection -> connection.getMetaData().getURL()));
+    }
+}
@@ -0,0 +1,71 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import com.blazebit.persistence.PagedList;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.dto.MemberSearchCondition;
+import personal.tutorial.springbootquerydsl.dto.MemberView;
+import personal.tutorial.springbootquerydsl.dto.MemberWithTeamView;
+import personal.tutorial.springbootquerydsl.dto.TeamWithMembersView;
+import personal.tutorial.springbootquerydsl.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static personal.tutorial.springbootquerydsl.TestFixture.persistTeamsWithMembers;
+
+@SpringBootTest
+@Transactional
+class EntityViewRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    EntityViewRepository entityViewRepository;
+
+    Team teamA;
+
+    @BeforeEach
+    public void before() {
+        teamA = persistTeamsWithMembers(em).teamA();
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void findMembers() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+        condition.setAgeGoe(35);
+
+        List<MemberWithTeamView> result = entityViewRepository.findMembers(condition);
+
+        assertThat(result).extracting(MemberView::getUsername).containsExactly("member4");
+        assertThat(result.get(0).getTeam().getName()).isEqualTo("teamB");
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero(); // 엔티티를 올리지 않는다
+    }
+
+    @Test
+    public void findTeamWithMembers() {
+        TeamWithMembersView view = entityViewRepository.findTeamWithMembers(teamA.getId());
+
+        assertThat(view.getName()).isEqualTo("teamA");
+        assertThat(view.getMembers()).extracting(MemberView::getUsername)
+                .containsExactlyInAnyOrder("member1", "member2");
+    }
+
+    @Test
+    public void pageTeamsWithMembers() {
+        PagedList<TeamWithMembersView> page = entityViewRepository.findTeamsWithMembers(1, 1);
+
+        assertThat(page.getTotalSize()).isEqualTo(2);
+        assertThat(page).extracting(TeamWithMembersView::getName).containsExactly("teamB");
+        assertThat(page.get(0).getMembers()).extracting(MemberView::getUsername)
+                .containsExactlyInAnyOrder("member3", "member4");
+    }
+}
@@ -0,0 +1,60 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.TestFixture.Teams;
+import personal.tutorial.springbootquerydsl.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static personal.tutorial.springbootquerydsl.TestFixture.persistMember;
+import static personal.tutorial.springbootquerydsl.TestFixture.persistTeamsWithMembers;
+
+@SpringBootTest
+@Transactional
+class MemberKeysetRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    MemberKeysetRepository memberKeysetRepository;
+
+    @BeforeEach
+    public void before() {
+        Teams teams = persistTeamsWithMembers(em);
+        persistMember(em, "member5", 40, teams.teamB()); // member4 와 나이가 같다
+        persistMember(em, null, 40, null);
+    }
+
+    @Test
+    @DisplayName("커서를 따라가면 나이 내림차순, 이름 오름차순(nulls last)으로 전부 조회된다")
+    public void walkAllPages() {
+        List<String> usernames = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<Member> page = memberKeysetRepository.findPage(cursor, 2);
+            page.getContent().forEach(m -> usernames.add(m.getUsername()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(usernames).containsExactly("member4", "member5", null, "member3", "member2", "member1");
+    }
+
+    @Test
+    public void cursorRoundTrip() {
+        MemberCursor cursor = MemberCursor.decode(new MemberCursor(20, "a|b", 7L).encode());
+        assertThat(cursor.getAge()).isEqualTo(20);
+        assertThat(cursor.getUsername()).isEqualTo("a|b");
+        assertThat(cursor.getId()).isEqualTo(7L);
+    }
+}
@@ -0,0 +1,95 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.dto.MemberSearchCondition;
+import personal.tutorial.springbootquerydsl.dto.MemberTeamDto;
+import personal.tutorial.springbootquerydsl.entity.Member;
+import personal.tutorial.springbootquerydsl.entity.Team;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static personal.tutorial.springbootquerydsl.TestFixture.persistTeamsWithMembers;
+
+@SpringBootTest
+@Transactional
+class MemberQueryRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    MemberQueryRepository memberQueryRepository;
+
+    @BeforeEach
+    public void before() {
+        persistTeamsWithMembers(em);
+    }
+
+    @Test
+    public void searchByTeamAndAge() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(35);
+        condition.setAgeLoe(40);
+        condition.setTeamName("teamB");
+
+        List<MemberTeamDto> result = memberQueryRepository.search(condition);
+
+        assertThat(result).extracting("username").containsExactly("member4");
+    }
+
+    @Test
+    public void sameShapeReusesJpql() {
+        MemberSearchCondition first = new MemberSearchCondition();
+        first.setUsername("member1");
+        MemberSearchCondition second = new MemberSearchCondition();
+        second.setUsername("member2");
+        second.setTeamName("  "); // 공백은 조건 없음으로 정규화된다
+
+        String firstJpql = memberQueryRepository.searchQuery(first).toString();
+        String secondJpql = memberQueryRepository.searchQuery(second).toString();
+        List<MemberTeamDto> result = memberQueryRepository.search(second);
+
+        assertThat(secondJpql).isEqualTo(firstJpql);
+        assertThat(result).extracting("username").containsExactly("member2");
+    }
+
+    @Test
+    public void countStrategies() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+
+        CountResult exact = memberQueryRepository.countMembers(condition, CountStrategy.exact());
+        CountResult capped = memberQueryRepository.countMembers(condition, CountStrategy.capped(2));
+        CountResult notCapped = memberQueryRepository.countMembers(condition, CountStrategy.capped(5));
+
+        assertThat(exact.getValue()).isEqualTo(3);
+        assertThat(capped.getValue()).isEqualTo(2);
+        assertThat(capped.isLowerBound()).isTrue();
+        assertThat(notCapped.getValue()).isEqualTo(3);
+        assertThat(notCapped.isExact()).isTrue();
+    }
+
+    @Test
+    public void cachedCountIsReusedPerCondition() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        CountStrategy strategy = CountStrategy.cached(Duration.ofMinutes(1));
+
+        CountResult first = memberQueryRepository.countMembers(condition, strategy);
+        Team teamA = em.createQuery("select t from Team t where t.name = 'teamA'", Team.class).getSingleResult();
+        em.persist(new Member("member5", 50, teamA));
+        em.flush();
+        CountResult second = memberQueryRepository.countMembers(condition, strategy);
+
+        assertThat(first.getValue()).isEqualTo(2);
+        assertThat(first.isExact()).isTrue();
+        assertThat(second.getValue()).isEqualTo(2); // TTL 안에서는 캐시된 값
+        assertThat(second.isExact()).isFalse();
+    }
+}
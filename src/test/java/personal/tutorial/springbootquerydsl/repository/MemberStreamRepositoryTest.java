@@ -0,0 +1,79 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import com.blazebit.persistence.querydsl.BlazeJPAQueryFactory;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.dto.MemberDto;
+import personal.tutorial.springbootquerydsl.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+class MemberStreamRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    MemberStreamRepository memberStreamRepository;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    BlazeJPAQueryFactory blazeQueryFactory;
+
+    @BeforeEach
+    public void before() {
+        for (int i = 0; i < 10; i++) {
+            em.persist(new Member("member" + i, i));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void forEachMemberDto() {
+        List<String> usernames = new ArrayList<>();
+        long count = memberStreamRepository.forEachMemberDto(3, dto -> usernames.add(dto.getUsername()));
+
+        assertThat(count).isEqualTo(10);
+        assertThat(usernames).startsWith("member0", "member1");
+    }
+
+    @Test
+    public void streamLeavesPersistenceContextEmpty() {
+        try (Stream<MemberDto> stream = memberStreamRepository.streamMemberDtos(2)) {
+            assertThat(stream.mapToInt(MemberDto::getAge).sum()).isEqualTo(45);
+        }
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    public void streamRejectsEntityProjection() {
+        assertThatThrownBy(() -> QueryStreams.stream(queryFactory.selectFrom(member)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> QueryStreams.stream(queryFactory.select(member.username, member.team).from(member)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void streamBlazeQuery() {
+        try (Stream<String> stream = QueryStreams.stream(blazeQueryFactory
+                .select(member.username)
+                .from(member)
+                .orderBy(member.id.asc()), 2)) {
+            assertThat(stream.limit(3)).containsExactly("member0", "member1", "member2");
+        }
+    }
+}
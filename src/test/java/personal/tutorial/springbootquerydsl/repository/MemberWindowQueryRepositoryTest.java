@@ -0,0 +1,48 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static personal.tutorial.springbootquerydsl.TestFixture.persistTeamsWithMembers;
+
+@SpringBootTest
+@Transactional
+class MemberWindowQueryRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    MemberWindowQueryRepository memberWindowQueryRepository;
+
+    @BeforeEach
+    public void before() {
+        persistTeamsWithMembers(em);
+    }
+
+    @Test
+    public void oldestMembers() {
+        assertThat(memberWindowQueryRepository.findOldestMembers()).extracting("age").containsExactly(40);
+    }
+
+    @Test
+    public void atLeastAverageAge() {
+        assertThat(memberWindowQueryRepository.findMembersAtLeastAverageAge()).extracting("age").containsExactly(30, 40);
+    }
+
+    @Test
+    public void oldestMembersPerTeam() {
+        assertThat(memberWindowQueryRepository.findOldestMembersPerTeam()).extracting("username")
+                .containsExactly("member2", "member4");
+    }
+
+    @Test
+    public void userDtosWithMaxAge() {
+        assertThat(memberWindowQueryRepository.findUserDtosWithMaxAge()).extracting("age")
+                .containsOnly(40);
+    }
+}
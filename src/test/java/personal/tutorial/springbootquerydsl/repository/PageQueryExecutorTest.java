@@ -0,0 +1,168 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import personal.tutorial.springbootquerydsl.monitoring.QueryCounter;
+import personal.tutorial.springbootquerydsl.monitoring.QueryScope;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+/**
+ * 조회가 다른 스레드, 다른 트랜잭션에서 실행되므로 @Transactional 을 붙이지 않는다.
+ * 내용은 고정된 목록을 돌려주고, 실행된 SQL 수와 걸린 시간을 본다.
+ */
+@SpringBootTest
+class PageQueryExecutorTest {
+
+    static final long QUERY_MILLIS = 300;
+
+    @Autowired
+    PageQueryExecutor pageQueryExecutor;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    EntityManager em;
+
+    final AtomicInteger statements = new AtomicInteger();
+
+    @Test
+    public void contentAndCountOverlap() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        long start = System.nanoTime();
+        Page<Integer> page = pageQueryExecutor.fetchPage(PageRequest.of(0, 10),
+                () -> {
+                    awaitOther(bothStarted);
+                    return IntStream.range(0, 10).boxed().toList();
+                },
+                () -> {
+                    awaitOther(bothStarted);
+                    return 100L;
+                });
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 순서대로 실행했다면 먼저 시작한 쪽이 latch 에서 풀리지 않는다
+        assertThat(bothStarted.getCount()).isZero();
+        assertThat(page.getTotalElements()).isEqualTo(100);
+        assertThat(elapsed).isLessThan(2 * QUERY_MILLIS);
+    }
+
+    @Test
+    public void fullFirstPageRunsCount() {
+        Page<Integer> page = fetch(PageRequest.of(0, 10), 10);
+
+        assertThat(page.getTotalElements()).isEqualTo(100);
+        assertThat(statements.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shortFirstPageDoesNotWaitForCount() {
+        long start = System.nanoTime();
+        Page<Integer> page = pageQueryExecutor.fetchPage(PageRequest.of(0, 10),
+                () -> IntStream.range(0, 3).boxed().toList(),
+                () -> {
+                    sleep(10 * QUERY_MILLIS);
+                    return 100L;
+                });
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(elapsed).isLessThan(5 * QUERY_MILLIS);
+    }
+
+    @Test
+    public void shortLastPageDoesNotUseCount() {
+        Page<Integer> page = fetch(PageRequest.of(2, 10), 4);
+
+        assertThat(page.getTotalElements()).isEqualTo(24);
+    }
+
+    @Test
+    public void shortPageCancelsRunningCount() throws InterruptedException {
+        CountDownLatch countFinished = new CountDownLatch(1);
+        AtomicReference<RuntimeException> countFailure = new AtomicReference<>();
+        LongSupplier slowCount = () -> {
+            try {
+                // 1억 x 1억 행을 세므로 취소되지 않으면 끝나지 않는다
+                return ((Number) em.createNativeQuery(
+                        "select count(*) from system_range(1, 100000000) a, system_range(1, 100000000) b")
+                        .getSingleResult()).longValue();
+            } catch (RuntimeException e) {
+                countFailure.set(e);
+                throw e;
+            } finally {
+                countFinished.countDown();
+            }
+        };
+
+        Page<Integer> page = pageQueryExecutor.fetchPage(PageRequest.of(0, 10),
+                () -> {
+                    sleep(QUERY_MILLIS); // count statement 가 DB 에서 돌기 시작할 시간
+                    return IntStream.range(0, 3).boxed().toList();
+                },
+                slowCount);
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(countFinished.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(countFailure.get()).isNotNull();
+    }
+
+    private Page<Integer> fetch(PageRequest pageable, int rows) {
+        return pageQueryExecutor.fetchPage(pageable,
+                () -> counted(() -> {
+                    queryFactory.select(member.id).from(member).limit(pageable.getPageSize()).fetch();
+                    return IntStream.range(0, rows).boxed().toList();
+                }),
+                () -> counted(() -> {
+                    queryFactory.select(member.count()).from(member).fetchOne();
+                    return 100L;
+                }));
+    }
+
+    /**
+     * QueryCounter 는 스레드별이므로 조회를 실행하는 스레드에서 스코프를 열어 합산한다
+     */
+    private <R> R counted(Supplier<R> query) {
+        try (QueryScope scope = QueryCounter.start("page")) {
+            R result = query.get();
+            statements.addAndGet(scope.getStatementCount());
+            return result;
+        }
+    }
+
+    /**
+     * 상대 조회가 시작할 때까지 기다린 뒤 QUERY_MILLIS 만큼 걸리는 조회 흉내
+     */
+    private static void awaitOther(CountDownLatch bothStarted) {
+        bothStarted.countDown();
+        try {
+            bothStarted.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sleep(QUERY_MILLIS);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
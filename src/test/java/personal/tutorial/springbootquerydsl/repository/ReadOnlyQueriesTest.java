@@ -0,0 +1,73 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import com.querydsl.core.types.Projections;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.dto.MemberDto;
+import personal.tutorial.springbootquerydsl.dto.QMemberDto;
+import personal.tutorial.springbootquerydsl.dto.UserDto;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static personal.tutorial.springbootquerydsl.TestFixture.persistTeamsWithMembers;
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+import static personal.tutorial.springbootquerydsl.entity.QTeam.team;
+
+@SpringBootTest
+@Transactional
+class ReadOnlyQueriesTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    ReadOnlyQueries readOnlyQueries;
+
+    @BeforeEach
+    public void before() {
+        persistTeamsWithMembers(em);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void fetchDto() {
+        List<MemberDto> result = readOnlyQueries.fetch(new QMemberDto(member.username, member.age),
+                q -> q.from(member)
+                        .join(member.team, team)
+                        .where(team.name.eq("teamB"), member.age.goe(35)));
+
+        assertThat(result).extracting("username").containsExactly("member4");
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    public void fetchBeanProjectionWithPaging() {
+        List<UserDto> result = readOnlyQueries.fetch(
+                Projections.fields(UserDto.class, member.username.as("name"), member.age),
+                q -> q.from(member).orderBy(member.age.desc()).offset(1).limit(2));
+
+        assertThat(result).extracting("name").containsExactly("member3", "member2");
+    }
+
+    @Test
+    public void fetchOneScalar() {
+        Integer maxAge = readOnlyQueries.fetchOne(member.age.max(), q -> q.from(member));
+
+        assertThat(maxAge).isEqualTo(40);
+    }
+
+    @Test
+    public void entityProjectionIsRejected() {
+        assertThatThrownBy(() -> readOnlyQueries.fetch(member, q -> q.from(member)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> readOnlyQueries.fetch(Projections.tuple(member.username, member.team), q -> q.from(member)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,67 @@
+package personal.tutorial.springbootquerydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.entity.Member;
+import personal.tutorial.springbootquerydsl.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static personal.tutorial.springbootquerydsl.TestFixture.persistTeam;
+import static personal.tutorial.springbootquerydsl.TestFixture.persistTeamsWithMembers;
+
+@SpringBootTest
+@Transactional
+class TeamQueryRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+    @PersistenceUnit
+    EntityManagerFactory emf;
+    @Autowired
+    TeamQueryRepository teamQueryRepository;
+
+    @BeforeEach
+    public void before() {
+        persistTeamsWithMembers(em);
+        persistTeam(em, "teamC"); // 회원 없는 팀
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("팀 페이징 + members 배치 로딩")
+    public void pagedTeamsWithMembers() {
+        List<Team> teams = teamQueryRepository.findTeamsWithMembers(0, 2);
+
+        assertThat(teams).extracting("name").containsExactly("teamA", "teamB");
+        for (Team team : teams) {
+            assertThat(emf.getPersistenceUnitUtil().isLoaded(team, "members")).isTrue();
+        }
+        assertThat(teams.get(0).getMembers()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("작은 결과는 페치 조인 한 번으로, 팀이 중복되지 않는다")
+    public void allTeamsWithMembers() {
+        List<Team> teams = teamQueryRepository.findTeamsWithMembers();
+
+        assertThat(teams).extracting("name").containsExactly("teamA", "teamB", "teamC");
+        assertThat(teams.get(2).getMembers()).isEmpty();
+    }
+
+    @Test
+    public void membersWithTeam() {
+        List<Member> members = teamQueryRepository.findMembersWithTeam();
+
+        assertThat(members).allMatch(m -> emf.getPersistenceUnitUtil().isLoaded(m.getTeam()));
+    }
+}
@@ -0,0 +1,135 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import personal.tutorial.springbootquerydsl.dto.BulkResult;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static personal.tutorial.springbootquerydsl.TestFixture.persistMember;
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+/**
+ * 청크별 커밋과 병렬 실행은 호출자 트랜잭션이 없을 때만 일어나므로 @Transactional 을 붙이지 않는다.
+ * 커밋된 데이터를 직접 넣고 지운다.
+ */
+@SpringBootTest
+class BulkExecutorCommitTest {
+
+    static final String PREFIX = "bulk-";
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    BulkExecutor bulkExecutor;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    UsernameSearch usernameSearch;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    public void before() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < 10; i++) {
+                persistMember(em, PREFIX + i, 10, null);
+            }
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        tx.executeWithoutResult(status -> queryFactory.delete(member).where(member.username.startsWith(PREFIX)).execute());
+    }
+
+    @Test
+    @DisplayName("청크마다 커밋되어, 진행 상황을 받을 때 그만큼이 이미 다른 트랜잭션에서 보인다")
+    public void commitsEachChunk() {
+        List<Long> committedAtProgress = new CopyOnWriteArrayList<>();
+        List<BulkResult> progress = new CopyOnWriteArrayList<>();
+
+        BulkResult result = bulkExecutor.update(member, member.id, member.username.startsWith(PREFIX),
+                clause -> clause.set(member.age, 99),
+                BulkOptions.builder().chunkSize(3).progressListener(p -> {
+                    progress.add(p);
+                    committedAtProgress.add(committedRows());
+                }).build());
+
+        assertThat(result.getRows()).isEqualTo(10);
+        assertThat(result.getChunks()).isEqualTo(4);
+        assertThat(progress).extracting("rows").containsExactly(3L, 6L, 9L, 10L);
+        assertThat(committedAtProgress).containsExactly(3L, 6L, 9L, 10L);
+    }
+
+    @Test
+    @DisplayName("parallelism 이 있으면 청크를 호출 스레드가 아닌 작업 스레드에서 실행한다")
+    public void runsChunksInParallel() {
+        Thread caller = Thread.currentThread();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        List<BulkResult> progress = new CopyOnWriteArrayList<>();
+
+        BulkResult result = bulkExecutor.update(member, member.id, member.username.startsWith(PREFIX),
+                clause -> clause.set(member.age, 99),
+                BulkOptions.builder().chunkSize(2).parallelism(2).progressListener(p -> {
+                    progress.add(p);
+                    threads.add(Thread.currentThread());
+                }).build());
+
+        assertThat(result.getRows()).isEqualTo(10);
+        assertThat(result.getChunks()).isEqualTo(5);
+        assertThat(progress).hasSize(5);
+        assertThat(threads).isNotEmpty().doesNotContain(caller);
+        assertThat(committedRows()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("청크가 하나라도 실패하면 남은 구간을 더 읽지 않고 실패를 던진다")
+    public void stopsOnFirstFailure() {
+        assertThatThrownBy(() -> bulkExecutor.update(member, member.id, member.username.startsWith(PREFIX),
+                clause -> clause.set(member.age, 99),
+                BulkOptions.builder().chunkSize(1).parallelism(2).progressListener(p -> {
+                    throw new IllegalArgumentException("chunk failed");
+                }).build()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+
+        // 실패를 알기 전에 넘긴 청크(동시에 최대 parallelism 개)만 커밋된다
+        assertThat(committedRows()).isLessThan(10);
+    }
+
+    @Test
+    @DisplayName("트랜잭션 밖에서 끝난 벌크 연산은 바로 인덱스를 다시 만들게 한다")
+    public void invalidatesIndexAfterCommit() {
+        assertThat(usernameSearch.autocomplete(PREFIX, 20)).contains(PREFIX + "0");
+
+        bulkExecutor.update(member, member.id, member.username.startsWith(PREFIX),
+                clause -> clause.set(member.username, member.username.concat("z")), BulkOptions.defaults());
+
+        assertThat(usernameSearch.autocomplete(PREFIX, 20)).contains(PREFIX + "0z").doesNotContain(PREFIX + "0");
+    }
+
+    private long committedRows() {
+        return tx.execute(status -> queryFactory
+                .select(member.count())
+                .from(member)
+                .where(member.username.startsWith(PREFIX), member.age.eq(99))
+                .fetchOne());
+    }
+}
@@ -0,0 +1,67 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.dto.BulkResult;
+import personal.tutorial.springbootquerydsl.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static personal.tutorial.springbootquerydsl.TestFixture.persistMember;
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+class BulkExecutorTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    BulkExecutor bulkExecutor;
+
+    Member member1;
+
+    @BeforeEach
+    public void before() {
+        member1 = persistMember(em, "member1", 10, null);
+        persistMember(em, "member2", 20, null);
+        persistMember(em, "member3", 30, null);
+        persistMember(em, "member4", 40, null);
+    }
+
+    @Test
+    @DisplayName("청크로 나눠 업데이트하고, 영속성 컨텍스트의 대상 엔티티는 refresh 된다")
+    public void chunkedUpdateRefresh() {
+        List<BulkResult> progress = new ArrayList<>();
+        BulkResult result = bulkExecutor.update(member, member.id, member.age.lt(28),
+                clause -> clause.set(member.username, "비회원"),
+                BulkOptions.builder().chunkSize(1).syncMode(BulkOptions.SyncMode.REFRESH)
+                        .progressListener(progress::add).build());
+
+        assertThat(result.getRows()).isEqualTo(2);
+        assertThat(result.getChunks()).isEqualTo(2);
+        assertThat(progress).hasSize(2);
+        assertThat(member1.getUsername()).isEqualTo("비회원");
+    }
+
+    @Test
+    @DisplayName("청크로 나눠 삭제하면 삭제된 엔티티는 영속성 컨텍스트에서 빠진다")
+    public void chunkedDelete() {
+        BulkResult result = bulkExecutor.delete(member, member.id, member.age.gt(15),
+                BulkOptions.builder().chunkSize(2).build());
+
+        assertThat(result.getRows()).isEqualTo(3);
+        assertThat(em.contains(member1)).isTrue();
+        assertThat(queryFactory.selectFrom(member).fetch()).extracting("username").containsExactly("member1");
+    }
+}
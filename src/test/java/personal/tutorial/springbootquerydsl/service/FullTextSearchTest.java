@@ -0,0 +1,63 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.dto.MemberDto;
+import personal.tutorial.springbootquerydsl.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static personal.tutorial.springbootquerydsl.TestFixture.persistMember;
+import static personal.tutorial.springbootquerydsl.TestFixture.persistTeam;
+
+@SpringBootTest
+@Transactional
+class FullTextSearchTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    FullTextSearch fullTextSearch;
+    @Autowired
+    FullTextIndex fullTextIndex;
+
+    Team teamA;
+
+    @BeforeEach
+    public void before() {
+        teamA = persistTeam(em, "teamA");
+        persistTeam(em, "teamB");
+        persistMember(em, "member1", 10, null);
+        persistMember(em, "member2", 20, null);
+        persistMember(em, "member3", 30, null);
+        persistMember(em, "member4", 40, null);
+        em.flush();
+        fullTextIndex.reindex(); // 롤백되는 테스트 데이터는 커밋 이벤트가 없으므로 직접 색인한다
+    }
+
+    @Test
+    public void exactMatchRanksFirst() {
+        List<MemberDto> result = fullTextSearch.searchMembers("member3", 10);
+
+        assertThat(result).isNotEmpty();
+        assertThat(result.get(0).getUsername()).isEqualTo("member3");
+    }
+
+    @Test
+    public void typoTolerant() {
+        List<MemberDto> result = fullTextSearch.searchMembers("membr2", 10);
+
+        assertThat(result).extracting("username").contains("member2");
+    }
+
+    @Test
+    public void searchTeams() {
+        assertThat(fullTextSearch.searchTeamIds("teama", 1)).containsExactly(teamA.getId());
+        assertThat(fullTextSearch.searchTeamIds("nothing-like-it", 10)).isEmpty();
+    }
+}
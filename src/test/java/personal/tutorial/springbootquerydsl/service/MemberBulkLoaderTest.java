@@ -0,0 +1,40 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.dto.BulkResult;
+import personal.tutorial.springbootquerydsl.dto.MemberRow;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+import static personal.tutorial.springbootquerydsl.entity.QTeam.team;
+
+@SpringBootTest
+@Transactional
+class MemberBulkLoaderTest {
+
+    @Autowired
+    MemberBulkLoader memberBulkLoader;
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Test
+    public void loadInChunks() {
+        BulkResult result = memberBulkLoader.load(IntStream.range(0, 250)
+                .mapToObj(i -> new MemberRow("bulk" + i, i % 50, i % 2 == 0 ? "bulkTeamA" : "bulkTeamB")), 100);
+
+        assertThat(result.getRows()).isEqualTo(250);
+        assertThat(result.getChunks()).isEqualTo(3);
+        assertThat(queryFactory
+                .select(member.count())
+                .from(member)
+                .join(member.team, team)
+                .where(team.name.eq("bulkTeamA"))
+                .fetchOne()).isEqualTo(125);
+    }
+}
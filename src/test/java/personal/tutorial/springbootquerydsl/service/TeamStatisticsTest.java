@@ -0,0 +1,101 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.dto.TeamStatsDto;
+import personal.tutorial.springbootquerydsl.entity.Member;
+import personal.tutorial.springbootquerydsl.entity.Team;
+import personal.tutorial.springbootquerydsl.service.MemberChangeEvent.MemberState;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static personal.tutorial.springbootquerydsl.TestFixture.persistTeamsWithMembers;
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+class TeamStatisticsTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    TeamStatistics teamStatistics;
+    @Autowired
+    BulkExecutor bulkExecutor;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    EntityChangePublisher changePublisher;
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    Team teamA;
+
+    @BeforeEach
+    public void before() {
+        teamA = persistTeamsWithMembers(em).teamA();
+        em.flush();
+        teamStatistics.invalidate();
+    }
+
+    @Test
+    public void aggregatePerTeam() {
+        TeamStatsDto stats = teamStatistics.get(teamA.getId());
+
+        assertThat(stats.getCount()).isEqualTo(2);
+        assertThat(stats.getSum()).isEqualTo(30);
+        assertThat(stats.getAvg()).isEqualTo(15);
+        assertThat(stats.getMax()).isEqualTo(20);
+        assertThat(stats.getMin()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안의 벌크 연산은 커밋 전이므로 통계를 다시 만들지 않는다")
+    public void bulkUpdateInsideTransactionWaitsForCommit() {
+        teamStatistics.get(teamA.getId());
+
+        bulkExecutor.update(member, member.id, member.age.lt(28),
+                clause -> clause.set(member.age, member.age.add(1)), BulkOptions.defaults());
+
+        assertThat(teamStatistics.get(teamA.getId()).getSum()).isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("GROUP BY 가 이미 본 변경의 커밋 이벤트가 늦게 와도 두 번 더하지 않는다")
+    public void lateEventForChangeSeenByRebuildIsNotCountedTwice() {
+        Member member1 = queryFactory.selectFrom(member).where(member.username.eq("member1")).fetchOne();
+        member1.setAge(11);
+        em.flush();
+        long flushed = changePublisher.currentFlushSequence();
+        teamStatistics.invalidate();
+        assertThat(teamStatistics.get(teamA.getId()).getSum()).isEqualTo(31);
+
+        eventPublisher.publishEvent(ageChange(member1, 10, 11, flushed));
+
+        assertThat(teamStatistics.get(teamA.getId()).getSum()).isEqualTo(31);
+    }
+
+    @Test
+    @DisplayName("다시 읽은 뒤에 flush 된 변경은 DB 를 다시 읽지 않고 증분 반영한다")
+    public void laterChangeIsAppliedIncrementally() {
+        Member member1 = queryFactory.selectFrom(member).where(member.username.eq("member1")).fetchOne();
+        assertThat(teamStatistics.get(teamA.getId()).getSum()).isEqualTo(30);
+
+        // DB 는 바꾸지 않으므로 다시 셌다면 30 이 나온다
+        eventPublisher.publishEvent(ageChange(member1, 10, 11, changePublisher.currentFlushSequence() + 1));
+
+        assertThat(teamStatistics.get(teamA.getId()).getSum()).isEqualTo(31);
+    }
+
+    private MemberChangeEvent ageChange(Member target, int before, int after, long flushSequence) {
+        return new MemberChangeEvent(ChangeType.UPDATE, target.getId(),
+                new MemberState(target.getUsername(), before, teamA.getId()),
+                new MemberState(target.getUsername(), after, teamA.getId()), flushSequence);
+    }
+}
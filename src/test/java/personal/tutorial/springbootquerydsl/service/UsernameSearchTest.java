@@ -0,0 +1,85 @@
+package personal.tutorial.springbootquerydsl.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import personal.tutorial.springbootquerydsl.dto.MemberTeamDto;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static personal.tutorial.springbootquerydsl.TestFixture.persistMember;
+import static personal.tutorial.springbootquerydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+class UsernameSearchTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    UsernameSearch usernameSearch;
+    @Autowired
+    UsernameIndex usernameIndex;
+    @Autowired
+    BulkExecutor bulkExecutor;
+
+    @BeforeEach
+    public void before() {
+        persistMember(em, "member1", 10, null);
+        persistMember(em, "member2", 20, null);
+        persistMember(em, "member3", 30, null);
+        persistMember(em, "member4", 40, null);
+        persistMember(em, "newbie", 50, null);
+        em.flush();
+        usernameIndex.invalidate(); // 롤백되는 테스트 데이터는 커밋 이벤트가 없으므로 다시 읽게 한다
+    }
+
+    @Test
+    public void autocomplete() {
+        assertThat(usernameSearch.autocomplete("memb", 3)).containsExactly("member1", "member2", "member3");
+        assertThat(usernameSearch.autocomplete("x", 10)).isEmpty();
+    }
+
+    @Test
+    public void findByPrefix() {
+        List<MemberTeamDto> result = usernameSearch.findByUsernamePrefix("member", 10);
+
+        assertThat(result).extracting("username").containsExactly("member1", "member2", "member3", "member4");
+    }
+
+    @Test
+    public void findByContaining() {
+        assertThat(usernameSearch.findByUsernameContaining("ber3", 10)).extracting("username").containsExactly("member3");
+        assertThat(usernameSearch.findByUsernameContaining("b", 10)).extracting("username")
+                .containsExactly("member1", "member2", "member3", "member4", "newbie");
+        assertThat(usernameSearch.findByUsernameContaining("mie", 10)).isEmpty();
+    }
+
+    @Test
+    public void findByContainingIsNotCutByIdOrder() {
+        for (int i = 0; i < 1_100; i++) {
+            persistMember(em, String.format("fa%04d", i), 20, null);
+        }
+        persistMember(em, "aaa", 20, null); // id 는 가장 크지만 username 순으로는 맨 앞
+        em.flush();
+        usernameIndex.invalidate();
+
+        assertThat(usernameSearch.findByUsernameContaining("a", 2)).extracting("username").containsExactly("aaa", "fa0000");
+        assertThat(usernameSearch.findByUsernameContaining("a", 2_000)).hasSize(1_101);
+    }
+
+    @Test
+    public void bulkUpdateInsideTransactionWaitsForCommit() {
+        usernameSearch.autocomplete("member", 10);
+
+        bulkExecutor.update(member, member.id, member.username.eq("newbie"),
+                clause -> clause.set(member.username, "member5"), BulkOptions.defaults());
+
+        // 인덱스는 커밋된 뒤에 다시 만든다 (커밋 후 동작은 BulkExecutorCommitTest)
+        assertThat(usernameSearch.autocomplete("member", 10)).doesNotContain("member5");
+    }
+}